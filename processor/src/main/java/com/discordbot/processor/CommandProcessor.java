@@ -0,0 +1,162 @@
+package com.discordbot.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates <tt>com.discordbot.command.CommandIndex</tt>, a static list of a {@code CommandSetting} for every
+ * {@code CommandListener} annotated with {@code Command}. {@code CommandLoader} reads the index at startup instead of
+ * scanning the classpath.
+ * <p>
+ * The types are referenced by name so the processor does not depend on the project it processes.
+ */
+@SupportedAnnotationTypes(CommandProcessor.COMMAND)
+public class CommandProcessor extends AbstractProcessor {
+
+    static final String COMMAND = "com.discordbot.command.Command";
+
+    private static final String LISTENER = "com.discordbot.command.CommandListener";
+    private static final String PACKAGE = "com.discordbot.command";
+    private static final String INDEX = "CommandIndex";
+
+    private boolean generated = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(COMMAND);
+        TypeElement listener = processingEnv.getElementUtils().getTypeElement(LISTENER);
+        if (generated || command == null || listener == null || annotations.isEmpty()) {
+            return false;
+        }
+
+        // sort by class name so the index is the same on every build
+        Map<String, String> entries = new TreeMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(command)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!processingEnv.getTypeUtils().isAssignable(type.asType(), listener.asType())) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "@Command is ignored on classes that do not extend " + LISTENER, element);
+                continue;
+            }
+
+            AnnotationMirror mirror = getMirror(type, command.asType());
+            if (mirror != null) {
+                entries.put(type.getQualifiedName().toString(),
+                        "new CommandSetting(" + type.getQualifiedName() + ".class, "
+                                + getValue(mirror, "tag").toString() + ", "
+                                + getValue(mirror, "enabled").toString() + ")");
+            }
+        }
+
+        try {
+            write(entries);
+            generated = true;
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + PACKAGE + "." + INDEX + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Finds an annotation on a type.
+     *
+     * @param type       The annotated type.
+     * @param annotation The type of the annotation.
+     * @return the {@link AnnotationMirror} or <tt>null</tt> if the type is not annotated.
+     */
+    private AnnotationMirror getMirror(TypeElement type, TypeMirror annotation) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (processingEnv.getTypeUtils().isSameType(mirror.getAnnotationType(), annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a value of an annotation, including defaults.
+     *
+     * @param mirror The annotation.
+     * @param name   The name of the value.
+     * @return the {@link AnnotationValue}, whose {@link AnnotationValue#toString()} is a source literal.
+     */
+    private AnnotationValue getValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalStateException("@Command has no value " + name);
+    }
+
+    /**
+     * Writes the index source.
+     *
+     * @param entries The source of each {@code CommandSetting}.
+     * @throws IOException if the source could not be written.
+     */
+    private void write(Map<String, String> entries) throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + INDEX);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            out.println("package " + PACKAGE + ";");
+            out.println();
+            out.println("import java.util.Arrays;");
+            out.println("import java.util.Collections;");
+            out.println("import java.util.List;");
+            out.println();
+            out.println("/**");
+            out.println(" * The {@link CommandListener}s annotated with {@link Command}, generated by "
+                    + getClass().getName() + ".");
+            out.println(" */");
+            out.println("public final class " + INDEX + " {");
+            out.println();
+            out.println("    private " + INDEX + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * Creates the {@link CommandSetting}s of every annotated {@link CommandListener}.");
+            out.println("     *");
+            out.println("     * @return an unmodifiable {@link List} of {@link CommandSetting}s.");
+            out.println("     */");
+            out.println("    public static List<CommandSetting> getCommandSettings() {");
+            out.println("        return Collections.unmodifiableList(Arrays.asList(");
+            int i = 0;
+            for (String entry : entries.values()) {
+                out.println("                " + entry + (++i < entries.size() ? "," : ""));
+            }
+            out.println("        ));");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        }
+    }
+
+}
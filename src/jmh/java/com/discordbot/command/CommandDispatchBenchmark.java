@@ -0,0 +1,95 @@
+package com.discordbot.command;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving a tag by walking every registered entry, as {@link CommandHandler} used to, with a single
+ * {@link CommandRegistry} lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDispatchBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"10", "1000", "50000"})
+    private int tags;
+
+    private final Map<String, CommandListener> legacy = new HashMap<>();
+    private final CommandRegistry registry = new CommandRegistry();
+    private final String[] probes = new String[PROBES];
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        CommandListener listener = new NoOpCommand();
+        for (int i = 0; i < tags; i++) {
+            legacy.put("tag" + i, listener);
+            registry.put("tag" + i, listener);
+        }
+
+        // probe with fresh String instances so equals can't short-circuit on identity
+        Random random = new Random(42);
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = new String("tag" + random.nextInt(tags));
+        }
+    }
+
+    @Benchmark
+    public CommandListener linearScan() {
+        String tag = probes[next++ & (PROBES - 1)];
+        CommandListener found = null;
+        for (Map.Entry<String, CommandListener> entry : legacy.entrySet()) {
+            if (tag.equals(entry.getKey())) {
+                found = entry.getValue();
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public CommandListener registryLookup() {
+        return registry.get(probes[next++ & (PROBES - 1)]);
+    }
+
+    /**
+     * A {@link CommandListener} that does nothing, used to fill the registry.
+     */
+    private static class NoOpCommand extends CommandListener {
+
+        @Override
+        protected void onCommandReceived(CommandReceivedEvent event, CommandHandler handler) {
+        }
+
+        @Override
+        public String getDescription() {
+            return "";
+        }
+
+        @Override
+        public String getHelp() {
+            return "";
+        }
+
+    }
+
+}
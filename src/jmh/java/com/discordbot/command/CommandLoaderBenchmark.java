@@ -0,0 +1,36 @@
+package com.discordbot.command;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of {@link CommandLoader}, comparing the generated <tt>CommandIndex</tt> with the
+ * {@link org.reflections.Reflections} scan it replaced. Each fork is a fresh JVM and runs a single shot, so class
+ * loading and the classpath scan are included just as they are on launch.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class CommandLoaderBenchmark {
+
+    @Benchmark
+    public List<CommandSetting> reflectionsScan() {
+        return new CommandLoader("com.discordbot").getCommandSettings();
+    }
+
+    @Benchmark
+    public List<CommandSetting> generatedIndex() {
+        return new CommandLoader().getCommandSettings();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.discordbot.command;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing {@link CommandReceivedEvent#buildCommand} used to do with {@link CommandTokenizer}. Run with
+ * <tt>-prof gc</tt> to see the allocation per command in <tt>gc.alloc.rate.norm</tt>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandTokenizerBenchmark {
+
+    private static final String[] MESSAGES = {
+            "!help",
+            "!roll 20",
+            "!wiki Sophomore slump",
+            "!meme doge \"such command\" \"very parse\"",
+            "!music play https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+    };
+
+    private final CommandRegistry registry = new CommandRegistry();
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        for (String tag : new String[]{"help", "roll", "wiki", "meme", "music", "xkcd", "kick", "ban"}) {
+            registry.put(tag, null);
+        }
+    }
+
+    @Benchmark
+    public void legacyBuildCommand(Blackhole blackhole) {
+        String message = MESSAGES[next++ % MESSAGES.length];
+        String command = message.replaceFirst(CommandReceivedEvent.PREFIX, "").trim();
+        String tag = "";
+        List<String> args = new ArrayList<>();
+
+        Iterator<String> words = new ArrayList<>(Arrays.asList(command.split(" "))).iterator();
+        if (words.hasNext()) {
+            tag = words.next();
+        }
+        while (words.hasNext()) {
+            StringBuilder builder = new StringBuilder(words.next());
+            while (words.hasNext() && builder.charAt(0) == '"' && builder.charAt(builder.length() - 1) != '"') {
+                builder.append(' ').append(words.next());
+            }
+            if (builder.charAt(0) == '"' && builder.length() > 1) {
+                args.add(builder.substring(1, builder.length() - (builder.charAt(builder.length() - 1) == '"' ? 1 : 0)));
+            } else {
+                args.add(builder.toString());
+            }
+        }
+        blackhole.consume(registry.contains(tag));
+        blackhole.consume(args);
+    }
+
+    @Benchmark
+    public void tagLookup(Blackhole blackhole) {
+        String message = MESSAGES[next++ % MESSAGES.length];
+        int start = CommandTokenizer.tagStart(message, CommandReceivedEvent.PREFIX.length());
+        blackhole.consume(registry.get(message, start, CommandTokenizer.tagEnd(message, start)));
+    }
+
+    @Benchmark
+    public void tokenizeAndReadArgs(Blackhole blackhole) {
+        String message = MESSAGES[next++ % MESSAGES.length];
+        int start = CommandTokenizer.tagStart(message, CommandReceivedEvent.PREFIX.length());
+        blackhole.consume(registry.get(message, start, CommandTokenizer.tagEnd(message, start)));
+        for (String arg : new CommandTokenizer(message, CommandReceivedEvent.PREFIX.length()).getArgs()) {
+            blackhole.consume(arg);
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.discordbot.model;
+
+import com.discordbot.filter.Normalizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a blacklist and a corpus of chat messages to benchmark the {@link ProfanityFilter} with. The same seed
+ * always generates the same blacklist and messages, so results of different runs and engines can be compared.
+ * <p>
+ * Message lengths are mixed like in a busy server: most messages are a few words, some are a sentence or two and a few
+ * are long paragraphs. Messages are made of common words, random words, numbers, mentions, links and emotes, and a
+ * set share of them is dirty. A dirty message contains a blacklisted word, half of the time disguised the way users
+ * disguise words, such as <tt>B4D</tt>, <tt>baaad</tt> or <tt>b.a.d</tt>. Clean messages never contain a word that
+ * {@link Normalizer normalizes} to a blacklisted word, so the share of dirty messages holds for any blacklist size.
+ * Numbers are made of the digits that imitate letters, such as <tt>455</tt> or <tt>8008</tt>, and some clean messages
+ * are nothing but numbers, since those must never be taken for words.
+ */
+public class MessageCorpus {
+
+    private static final String[] COMMON_WORDS = {
+            "the", "be", "to", "of", "and", "a", "in", "that", "have", "i", "it", "for", "not", "on", "with", "he",
+            "as", "you", "do", "at", "this", "but", "his", "by", "from", "they", "we", "say", "her", "she", "or", "an",
+            "will", "my", "one", "all", "would", "there", "their", "what", "so", "up", "out", "if", "about", "who",
+            "get", "which", "go", "me", "when", "make", "can", "like", "time", "no", "just", "him", "know", "take",
+            "people", "into", "year", "your", "good", "some", "could", "them", "see", "other", "than", "then", "now",
+            "look", "only", "come", "its", "over", "think", "also", "back", "after", "use", "two", "how", "our",
+            "work", "first", "well", "way", "even", "new", "want", "because", "any", "these", "give", "day", "most",
+            "us", "lol", "gg", "game", "tonight", "anyone", "play", "server", "patch", "boss", "raid", "lmao", "brb",
+    };
+    private static final String[] EXTRAS = {
+            "<@109>", "<@&212>", "<#310>", ":thumbsup:", ":joy:", "https://example.com/watch?v=dQw4w9WgXcQ", "!!",
+            "?", "...", "42", "5pm", "2d6",
+    };
+    private static final char[][] LEET = {{'a', '4'}, {'e', '3'}, {'i', '1'}, {'o', '0'}, {'s', '5'}, {'t', '7'}};
+    private static final String LOOK_ALIKE_DIGITS = "01345789";
+
+    private final Random random;
+    private final List<String> blacklist = new ArrayList<>();
+    private final Set<String> keys = new HashSet<>();
+
+    /**
+     * @param seed  The seed of the corpus.
+     * @param words The number of words in the blacklist.
+     */
+    public MessageCorpus(long seed, int words) {
+        random = new Random(seed);
+        Set<String> common = new HashSet<>();
+        for (String word : COMMON_WORDS) {
+            common.add(key(word));
+        }
+        while (blacklist.size() < words) {
+            String word = randomWord(4, 10);
+            String key = key(word);
+            if (!common.contains(key) && keys.add(key)) {
+                blacklist.add(word);
+            }
+        }
+    }
+
+    /**
+     * Accessor for the blacklist of the corpus.
+     *
+     * @return the blacklisted words, in the order they were generated.
+     */
+    public List<String> getBlacklist() {
+        return blacklist;
+    }
+
+    /**
+     * Generates messages.
+     *
+     * @param count        The number of messages.
+     * @param dirtyPercent The percentage of messages containing a blacklisted word.
+     * @return the messages, clean and dirty ones shuffled together.
+     */
+    public List<String> messages(int count, int dirtyPercent) {
+        List<String> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(message(random.nextInt(100) < dirtyPercent));
+        }
+        return messages;
+    }
+
+    /**
+     * Generates a message. 60% of messages are 1 to 6 words, 30% are 7 to 25 words and 10% are 26 to 120 words, and
+     * 5% of clean messages are 1 to 3 numbers only.
+     *
+     * @param dirty <tt>true</tt> to include a blacklisted word, <tt>false</tt> otherwise.
+     * @return the message.
+     */
+    private String message(boolean dirty) {
+        if (!dirty && random.nextInt(20) == 0) {
+            StringBuilder message = new StringBuilder(randomNumber());
+            for (int numbers = random.nextInt(3); numbers > 0; numbers--) {
+                message.append(' ').append(randomNumber());
+            }
+            return message.toString();
+        }
+
+        int kind = random.nextInt(10);
+        int length = kind < 6 ? 1 + random.nextInt(6) : kind < 9 ? 7 + random.nextInt(19) : 26 + random.nextInt(95);
+        int dirtyAt = dirty ? random.nextInt(length) : -1;
+
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                message.append(random.nextInt(12) == 0 ? ", " : " ");
+            }
+            if (i == dirtyAt) {
+                String word = blacklist.get(random.nextInt(blacklist.size()));
+                message.append(random.nextBoolean() ? word : disguise(word));
+                continue;
+            }
+            int pick = random.nextInt(20);
+            if (pick < 15) {
+                String word = COMMON_WORDS[random.nextInt(COMMON_WORDS.length)];
+                message.append(i == 0 && random.nextBoolean() ? Character.toUpperCase(word.charAt(0))
+                        + word.substring(1) : word);
+            } else if (pick < 18) {
+                String word;
+                do {
+                    word = randomWord(3, 9);
+                } while (keys.contains(key(word)));
+                message.append(word);
+            } else if (pick < 19) {
+                message.append(EXTRAS[random.nextInt(EXTRAS.length)]);
+            } else {
+                message.append(randomNumber());
+            }
+        }
+        if (random.nextInt(3) == 0) {
+            message.append(random.nextBoolean() ? "!" : "?");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Disguises a word the way users do: shouting it, swapping letters for look-alike digits, repeating a letter or
+     * spelling it out with dots.
+     *
+     * @param word The word.
+     * @return the disguised word.
+     */
+    private String disguise(String word) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return word.toUpperCase();
+            case 1:
+                String leetWord = word;
+                for (char[] leet : LEET) {
+                    leetWord = leetWord.replace(leet[0], leet[1]);
+                }
+                // a word turned into digits only reads as a number, so shout it instead
+                return leetWord.chars().anyMatch(Character::isLetter) ? leetWord : word.toUpperCase();
+            case 2:
+                int at = random.nextInt(word.length());
+                char c = word.charAt(at);
+                return word.substring(0, at) + c + c + c + word.substring(at);
+            default:
+                return String.join(".", word.split(""));
+        }
+    }
+
+    /**
+     * Computes the key of a word, which is the same for every word the {@link ProfanityFilter} takes for the same word:
+     * the word {@link Normalizer normalized}, with every run of a repeated letter collapsed to one letter.
+     *
+     * @param word The word.
+     * @return the key.
+     */
+    private static String key(String word) {
+        String normalized = Normalizer.normalize(word);
+        StringBuilder key = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i) != normalized.charAt(i - 1)) {
+                key.append(normalized.charAt(i));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Generates a random number of 2 to 7 digits that imitate letters.
+     *
+     * @return the number.
+     */
+    private String randomNumber() {
+        StringBuilder number = new StringBuilder();
+        for (int length = 2 + random.nextInt(6); number.length() < length; ) {
+            number.append(LOOK_ALIKE_DIGITS.charAt(random.nextInt(LOOK_ALIKE_DIGITS.length())));
+        }
+        return number.toString();
+    }
+
+    /**
+     * Generates a random lower case word.
+     *
+     * @param min The fewest letters of the word.
+     * @param max The most letters of the word.
+     * @return the word.
+     */
+    private String randomWord(int min, int max) {
+        StringBuilder word = new StringBuilder();
+        for (int length = min + random.nextInt(max - min + 1); word.length() < length; ) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+}
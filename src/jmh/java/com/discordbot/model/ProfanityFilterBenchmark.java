@@ -0,0 +1,91 @@
+package com.discordbot.model;
+
+import com.discordbot.filter.AhoCorasick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link ProfanityFilter#filter(String)} on a {@link MessageCorpus}, for blacklists of 10
+ * to 100,000 words and for 1%, 10% and 50% dirty messages, from a quiet server to a raid. The split and compare loop
+ * the filter used to run is measured next to the compiled {@link com.discordbot.filter.WordMatcher}, along with a bare
+ * {@link AhoCorasick} scan of the same words to show the cost of normalizing the message. A new engine is added as
+ * another benchmark over the same corpus. Run with <tt>-prof gc</tt> to check that clean messages allocate nothing.
+ * <p>
+ * <tt>gradle jmh jmhCheck</tt> fails if <tt>normalizingFilter</tt> falls below the throughput recorded in
+ * <tt>src/jmh/thresholds.properties</tt>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfanityFilterBenchmark {
+
+    private static final int MESSAGES = 8192;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int words;
+
+    @Param({"1", "10", "50"})
+    private int dirtyPercent;
+
+    private final ProfanityFilter filter = new ProfanityFilter();
+    private AhoCorasick automaton;
+    private final Set<String> blacklist = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private List<String> messages;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        MessageCorpus corpus = new MessageCorpus(42, words);
+        List<String> list = corpus.getBlacklist();
+        blacklist.addAll(list);
+        filter.add(list.toArray(new String[list.size()]));
+        automaton = new AhoCorasick(list);
+        filter.awaitCompilation();
+        messages = corpus.messages(MESSAGES, dirtyPercent);
+    }
+
+    @Benchmark
+    public List<String> legacyFilter() {
+        String message = messages.get(next++ & (MESSAGES - 1));
+        List<String> badWords = new ArrayList<>();
+        for (String word : message.split("\\W+")) {
+            for (String wordBL : blacklist) {
+                if (wordBL.equalsIgnoreCase(word)) {
+                    badWords.add(word.toLowerCase());
+                }
+            }
+        }
+        return badWords;
+    }
+
+    @Benchmark
+    public List<ProfanityFilter.Match> normalizingFilter() {
+        return filter.filter(messages.get(next++ & (MESSAGES - 1)));
+    }
+
+    @Benchmark
+    public int plainScan() {
+        int[] count = new int[1];
+        automaton.scan(messages.get(next++ & (MESSAGES - 1)), (start, end, pattern) -> count[0]++);
+        return count[0];
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.discordbot.model;
+
+import com.discordbot.filter.WordPrefilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the clean path of {@link ProfanityFilter#filter(String)} with and without its {@link WordPrefilter}, for
+ * blacklists of 100 to 100,000 random words. Every message is clean, made of random words that are not blacklisted.
+ * The {@link WordPrefilter} on its own is measured by {@link WordPrefilterFalsePositiveBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordPrefilterBenchmark {
+
+    static final int MESSAGES = 4096;
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int words;
+
+    @Param({"true", "false"})
+    private boolean prefilter;
+
+    private final ProfanityFilter filter = new ProfanityFilter();
+    private final List<String> messages = new ArrayList<>();
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        Random random = new Random(42);
+        Set<String> blacklist = blacklist(random, words);
+        filter.setPrefilterEnabled(prefilter).add(blacklist.toArray(new String[blacklist.size()]));
+        filter.awaitCompilation();
+        for (String[] message : cleanMessages(random, blacklist)) {
+            messages.add(String.join(" ", message));
+        }
+    }
+
+    /**
+     * Generates a blacklist of random words.
+     *
+     * @param random The {@link Random} to use.
+     * @param words  The number of words.
+     * @return the blacklist.
+     */
+    static Set<String> blacklist(Random random, int words) {
+        Set<String> blacklist = new HashSet<>();
+        while (blacklist.size() < words) {
+            blacklist.add(randomWord(random));
+        }
+        return blacklist;
+    }
+
+    /**
+     * Generates {@link #MESSAGES} clean messages of 3 to 12 random words that are not blacklisted.
+     *
+     * @param random    The {@link Random} to use.
+     * @param blacklist The blacklist.
+     * @return the words of each message.
+     */
+    static List<String[]> cleanMessages(Random random, Set<String> blacklist) {
+        List<String[]> messages = new ArrayList<>(MESSAGES);
+        while (messages.size() < MESSAGES) {
+            String[] message = new String[3 + random.nextInt(10)];
+            for (int i = 0; i < message.length; i++) {
+                do {
+                    message[i] = randomWord(random);
+                } while (blacklist.contains(message[i]));
+            }
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * Generates a random lower case word of 4 to 10 letters.
+     *
+     * @param random The {@link Random} to use.
+     * @return the word.
+     */
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int length = 4 + random.nextInt(7); word.length() < length; ) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    @Benchmark
+    public List<ProfanityFilter.Match> cleanMessage() {
+        return filter.filter(messages.get(next++ & (MESSAGES - 1)));
+    }
+
+}
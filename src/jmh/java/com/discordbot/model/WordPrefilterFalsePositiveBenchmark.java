@@ -0,0 +1,102 @@
+package com.discordbot.model;
+
+import com.discordbot.filter.WordPrefilter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a {@link WordPrefilter} on its own against the clean messages of {@link WordPrefilterBenchmark}, for
+ * blacklists of 100 to 100,000 random words.
+ * <p>
+ * {@link #prefilterOnly} also counts, through {@link Counters}, how many clean messages and words the
+ * {@link WordPrefilter} lets through anyway; <tt>falsePositiveMessages / messages</tt> is the share of clean messages
+ * that still pay for the full match, and <tt>falsePositiveWords / words</tt> is the false positive rate per word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordPrefilterFalsePositiveBenchmark {
+
+    private static final int MESSAGES = WordPrefilterBenchmark.MESSAGES;
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int words;
+
+    private WordPrefilter wordPrefilter;
+    private final List<String> messages = new ArrayList<>();
+    private List<String[]> messageWords;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Set<String> blacklist = WordPrefilterBenchmark.blacklist(random, words);
+        wordPrefilter = new WordPrefilter(blacklist);
+        messageWords = WordPrefilterBenchmark.cleanMessages(random, blacklist);
+        for (String[] message : messageWords) {
+            messages.add(String.join(" ", message));
+        }
+    }
+
+    @Benchmark
+    public boolean prefilterOnly(Counters counters) {
+        int index = next++ & (MESSAGES - 1);
+        boolean passed = wordPrefilter.mightMatch(messages.get(index));
+        counters.messages++;
+        if (passed) {
+            counters.falsePositiveMessages++;
+            for (String word : messageWords.get(index)) {
+                counters.words++;
+                if (wordPrefilter.mightMatch(word)) {
+                    counters.falsePositiveWords++;
+                }
+            }
+        } else {
+            counters.words += messageWords.get(index).length;
+        }
+        return passed;
+    }
+
+    /**
+     * Counts the clean messages and words the {@link WordPrefilter} lets through.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long messages;
+        public long falsePositiveMessages;
+        public long words;
+        public long falsePositiveWords;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            messages = 0;
+            falsePositiveMessages = 0;
+            words = 0;
+            falsePositiveWords = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.discordbot.sql;
+
+import com.discordbot.model.Setting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures settings reads and writes per second through a {@link SettingDB}, from one thread and from four threads at
+ * once. The settings are kept in a table of their own in the bot's database, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingDBBenchmark {
+
+    private static final int SETTINGS = 1000;
+
+    private SettingDB database;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkSettingDB();
+        database.onReset();
+        Setting[] settings = new Setting[SETTINGS];
+        for (int i = 0; i < SETTINGS; i++) {
+            settings[i] = new Setting("key" + i, "value" + i);
+        }
+        if (database.insert(settings) != SETTINGS) {
+            throw new IllegalStateException("Could not insert the settings");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.onDestroy();
+    }
+
+    @Benchmark
+    public Setting select() {
+        return database.select("key" + ThreadLocalRandom.current().nextInt(SETTINGS));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Setting selectConcurrent() {
+        return database.select("key" + ThreadLocalRandom.current().nextInt(SETTINGS));
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return database.exists("key" + ThreadLocalRandom.current().nextInt(SETTINGS));
+    }
+
+    @Benchmark
+    public int update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return database.update(new Setting("key" + random.nextInt(SETTINGS), "value" + random.nextInt()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int updateConcurrent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return database.update(new Setting("key" + random.nextInt(SETTINGS), "value" + random.nextInt()));
+    }
+
+    /**
+     * A {@link SettingDB} with a table of its own.
+     */
+    private static class BenchmarkSettingDB extends SettingDB {
+
+        private static final String TABLE = "benchmark_setting";
+
+        BenchmarkSettingDB() {
+            super(TABLE);
+        }
+
+        @Override
+        protected void onCreate() {
+            query("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + SETTING_KEY + " TEXT NOT NULL PRIMARY KEY, "
+                    + SETTING_VALUE + " TEXT NOT NULL);");
+        }
+
+        @Override
+        protected void onDestroy() {
+            query("DROP TABLE IF EXISTS " + TABLE);
+        }
+
+    }
+
+}
@@ -38,6 +38,7 @@ public class DiscordBot {
      */
     private DiscordBot() {
         addEventListener(commandHandler);
+        commandHandler.getMetrics().registerMBean();
     }
 
     /**
@@ -128,6 +129,8 @@ public class DiscordBot {
     public synchronized DiscordBot shutdown() {
         if (jda != null && canRestart) {
             jda.shutdown();
+            commandHandler.getExecutor().shutdown();
+            commandHandler.getRateLimiter().shutdown();
             canRestart = false;
             running = false;
             for (ChangeListener changeListener : changeListeners) {
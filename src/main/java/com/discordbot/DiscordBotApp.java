@@ -1,5 +1,7 @@
 package com.discordbot;
 
+import com.discordbot.command.ChannelBlacklistMiddleware;
+import com.discordbot.command.CommandExecutor;
 import com.discordbot.command.CommandLoader;
 import com.discordbot.command.CommandSetting;
 import com.discordbot.gui.FXMLController;
@@ -9,9 +11,12 @@ import com.discordbot.gui.TokenController;
 import com.discordbot.model.ProfanityFilter;
 import com.discordbot.model.Setting;
 import com.discordbot.sql.CommandDB;
+import com.discordbot.sql.ConnectionPool;
+import com.discordbot.sql.GuildBlacklistDB;
 import com.discordbot.sql.MusicSettingDB;
 import com.discordbot.util.IOUtils;
 import com.discordbot.util.MessageListener;
+import com.discordbot.util.ProfanityFilterJournal;
 import com.discordbot.util.ProfanityFilterListener;
 import com.discordbot.util.SettingHandler;
 import javafx.application.Application;
@@ -31,10 +36,13 @@ import net.dv8tion.jda.core.utils.SimpleLog;
 
 import java.io.IOException;
 import java.net.URL;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DiscordBotApp is the entry point for the DiscordBot application. It starts the application and handles any JavaFX
@@ -54,6 +62,7 @@ public class DiscordBotApp extends Application {
     private MenuItem strawPollMenuItem;
 
     private ProfanityFilter profanityFilter = DiscordBot.getInstance().getProfanityFilter();
+    private ProfanityFilterJournal profanityFilterJournal;
 
     /**
      * Starts DiscordBotApp
@@ -112,7 +121,8 @@ public class DiscordBotApp extends Application {
         DiscordBot.getInstance().addEventListener(new MessageListener());
 
         // load profanity filter listener
-        final ProfanityFilterListener profanityFilterListener = new ProfanityFilterListener(profanityFilter);
+        final ProfanityFilterListener profanityFilterListener = new ProfanityFilterListener(profanityFilter,
+                DiscordBot.getInstance().getCommandHandler());
         try {
             // use enabled setting
             if (SettingHandler.getBoolean(ProfanityFilterListener.SETTING_ENABLED)) {
@@ -126,7 +136,21 @@ public class DiscordBotApp extends Application {
             DiscordBot.getInstance().getCommandHandler().enableProfanityFilter(true);
         }
 
-        // set up change listener for profanity filter enabled setting
+        // load the profanity filter reply settings
+        try {
+            profanityFilterListener.setReplyGuild(
+                    SettingHandler.getBoolean(ProfanityFilterListener.SETTING_REPLY_GUILD));
+        } catch (InvalidKeyException e) {
+            SettingHandler.setBoolean(ProfanityFilterListener.SETTING_REPLY_GUILD, false);
+        }
+        try {
+            profanityFilterListener.setReplyPrivate(
+                    SettingHandler.getBoolean(ProfanityFilterListener.SETTING_REPLY_PRIVATE));
+        } catch (InvalidKeyException e) {
+            SettingHandler.setBoolean(ProfanityFilterListener.SETTING_REPLY_PRIVATE, false);
+        }
+
+        // set up change listener for profanity filter settings
         try {
             final boolean profanityFilterEnabled = SettingHandler.getBoolean(ProfanityFilterListener.SETTING_ENABLED);
             SettingHandler.addBooleanChangeListener(
@@ -146,6 +170,10 @@ public class DiscordBotApp extends Application {
                                     DiscordBot.getInstance().getCommandHandler().enableProfanityFilter(false);
                                     enabled = false;
                                 }
+                            } else if (key.equals(ProfanityFilterListener.SETTING_REPLY_GUILD)) {
+                                profanityFilterListener.setReplyGuild(value);
+                            } else if (key.equals(ProfanityFilterListener.SETTING_REPLY_PRIVATE)) {
+                                profanityFilterListener.setReplyPrivate(value);
                             }
                         }
                     });
@@ -154,6 +182,25 @@ public class DiscordBotApp extends Application {
             LOG.log(e);
         }
 
+        // load the command rejection message setting
+        try {
+            DiscordBot.getInstance().getCommandHandler().getExecutor()
+                    .setRejectionMessage(SettingHandler.getString(CommandExecutor.SETTING_REJECTION_MESSAGE));
+        } catch (InvalidKeyException e) {
+            SettingHandler.setString(CommandExecutor.SETTING_REJECTION_MESSAGE,
+                    CommandExecutor.DEFAULT_REJECTION_MESSAGE);
+        }
+
+        // load the channels commands are ignored in
+        try {
+            String channels = SettingHandler.getString(ChannelBlacklistMiddleware.SETTING_CHANNELS);
+            DiscordBot.getInstance().getCommandHandler().setBlacklistedChannels(channels.isEmpty()
+                    ? Collections.emptyList()
+                    : Arrays.asList(channels.split(",")));
+        } catch (InvalidKeyException e) {
+            SettingHandler.setString(ChannelBlacklistMiddleware.SETTING_CHANNELS, "");
+        }
+
         // set up change listener for token setting
         try {
             final String initialToken = SettingHandler.getString(TokenController.TOKEN_SETTING);
@@ -182,12 +229,8 @@ public class DiscordBotApp extends Application {
             public void onGuildVoiceJoin(GuildVoiceJoinEvent event) {
                 if (event.getMember().getUser().getId().equals(
                         DiscordBot.getInstance().getJDA().getSelfUser().getId())) {
-                    MusicSettingDB database = new MusicSettingDB();
-                    if (database.exists(event.getGuild().getId())) {
-                        database.update(new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
-                    } else {
-                        database.insert(new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
-                    }
+                    new MusicSettingDB().upsert(
+                            new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
                 }
             }
 
@@ -195,12 +238,8 @@ public class DiscordBotApp extends Application {
             public void onGuildVoiceMove(GuildVoiceMoveEvent event) {
                 if (event.getMember().getUser().getId().equals(
                         DiscordBot.getInstance().getJDA().getSelfUser().getId())) {
-                    MusicSettingDB database = new MusicSettingDB();
-                    if (database.exists(event.getGuild().getId())) {
-                        database.update(new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
-                    } else {
-                        database.insert(new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
-                    }
+                    new MusicSettingDB().upsert(
+                            new Setting(event.getGuild().getId(), event.getChannelJoined().getId()));
                 }
             }
         });
@@ -208,22 +247,27 @@ public class DiscordBotApp extends Application {
 
     /**
      * Loads {@link CommandSetting} from the {@link CommandDB} database. If {@link CommandSetting}s are not yet stored
-     * in the database, the default values will be inserted in the database.
+     * in the database, the default values will be inserted in the database. The command prefix of each guild is loaded
+     * from the {@link com.discordbot.sql.PrefixDB} database.
      */
     private void loadCommands() {
         new Thread(() -> {
+            // load the prefixes before any command can be matched against them
+            DiscordBot.getInstance().getCommandHandler().getPrefixes().load();
+
             // use CommandLoader to load annotated commands
-            List<CommandSetting> defaults = new CommandLoader("com.discordbot").getCommandSettings();
+            List<CommandSetting> defaults = new CommandLoader().getCommandSettings();
 
-            // load each command that is listed in defaults
+            // load each command that is listed in defaults, and insert the new ones in one batch
             CommandDB database = new CommandDB();
+            List<CommandSetting> inserts = new ArrayList<>();
             for (CommandSetting defaultSetting : defaults) {
                 CommandSetting savedSetting = database.select(defaultSetting.getCls().getName());
                 if (savedSetting == null) {
                     if (defaultSetting.isEnabled()) {
                         DiscordBot.getInstance().getCommandHandler().setCommandListener(defaultSetting);
                     }
-                    database.insert(defaultSetting);
+                    inserts.add(defaultSetting);
                 } else if (savedSetting.isEnabled()) {
                     DiscordBot.getInstance().getCommandHandler().setCommandListener(savedSetting);
                     if (!savedSetting.isEnabled()) {
@@ -231,8 +275,10 @@ public class DiscordBotApp extends Application {
                     }
                 }
             }
+            database.insert(inserts.toArray(new CommandSetting[inserts.size()]));
 
             // remove commands not listed in defaults from database
+            List<String> deletes = new ArrayList<>();
             for (String cls : database.selectAllKeys()) {
                 boolean found = false;
                 for (CommandSetting setting : defaults) {
@@ -242,37 +288,34 @@ public class DiscordBotApp extends Application {
                     }
                 }
                 if (!found) {
-                    database.delete(cls);
+                    deletes.add(cls);
                 }
             }
+            database.delete(deletes.toArray(new String[deletes.size()]));
         }).start();
     }
 
     /**
      * Initializes the {@link ProfanityFilter}. Loads the file "profanity_filter.txt" from the resource folder set in
-     * {@link SettingHandler}. Adds a {@link com.discordbot.model.ProfanityFilter.ChangeListener}
-     * for saving changes to the "profanity_filter.txt" file.
+     * {@link SettingHandler} and replays its journal through a {@link ProfanityFilterJournal}, which then persists
+     * changes to the {@link ProfanityFilter}. The blacklist of each guild is loaded from the {@link GuildBlacklistDB}.
      */
     private void initializeProfanityFilter() {
-        // load list from file
+        profanityFilterJournal = new ProfanityFilterJournal(IOUtils.getResourcePath("profanity_filter.txt"));
         try {
-            List<String> lines = Files.readAllLines(IOUtils.getResourcePath("profanity_filter.txt"));
-            if (!lines.isEmpty()) {
-                profanityFilter.add(lines.toArray(new String[lines.size()]));
-            }
+            profanityFilterJournal.load(profanityFilter);
         } catch (IOException e) {
-            LOG.warn("profanity_filter.txt not found");
+            LOG.log(e);
         }
 
-        // set up profanity filter change listener
-        profanityFilter.setChangeListener((filter, type, words) -> {
-            try {
-                Files.write(IOUtils.getResourcePath("profanity_filter.txt"), filter.asList(),
-                        Charset.forName("UTF-8"));
-            } catch (IOException e) {
-                LOG.log(e);
+        List<Setting> blacklists = new GuildBlacklistDB().selectAll();
+        if (blacklists != null) {
+            Map<String, List<String>> words = new HashMap<>();
+            for (Setting blacklist : blacklists) {
+                words.put(blacklist.getKey(), Arrays.asList(blacklist.getValue().split("\n")));
             }
-        });
+            profanityFilter.loadGuildWords(words);
+        }
     }
 
     /**
@@ -286,12 +329,18 @@ public class DiscordBotApp extends Application {
     }
 
     /**
-     * This method is called when the application should stop. It calls {@link DiscordBot#shutdown()
-     * DiscordBot.getInstance().shutdown()}.
+     * This method is called when the application should stop. It writes pending changes to the {@link ProfanityFilter},
+     * calls {@link DiscordBot#shutdown() DiscordBot.getInstance().shutdown()}, writes pending changes to the settings
+     * and closes the connections to the database.
      */
     @Override
     public void stop() {
+        if (profanityFilterJournal != null) {
+            profanityFilterJournal.close();
+        }
         DiscordBot.getInstance().shutdown();
+        SettingHandler.close();
+        ConnectionPool.closeAll();
     }
 
     /**
@@ -0,0 +1,123 @@
+package com.discordbot.command;
+
+import com.discordbot.DiscordBot;
+import com.discordbot.filter.Rule;
+import com.discordbot.model.ProfanityFilter;
+import com.discordbot.model.Setting;
+import com.discordbot.sql.GuildBlacklistDB;
+import net.dv8tion.jda.core.Permission;
+import net.dv8tion.jda.core.entities.ChannelType;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.MessageChannel;
+import net.dv8tion.jda.core.entities.User;
+
+import java.util.List;
+
+/**
+ * A {@link CommandListener} for handling the blacklist command, which edits the words the {@link ProfanityFilter}
+ * blacklists in a {@link Guild} on top of the global blacklist.
+ *
+ * @see CommandListener
+ */
+@Command(tag = "blacklist", enabled = true, permissions = Permission.MANAGE_SERVER, filterProfanity = false)
+public class BlacklistCommand extends CommandListener {
+
+    /**
+     * Handles any {@link CommandReceivedEvent}. Without arguments, the BlacklistCommand sends the blacklist of the
+     * {@link Guild} to the author in a private message. With "add" or "remove" followed by words, it adds or removes
+     * the words and stores the blacklist in the {@link GuildBlacklistDB}. A word can be any {@link Rule}, and adding
+     * is refused if one of them is not valid. Replies in the channel never repeat the words.
+     * Only members with {@link Permission#MANAGE_SERVER} can use the BlacklistCommand.
+     *
+     * @param event   The {@link CommandReceivedEvent} to handle.
+     * @param handler The {@link CommandHandler} that pushed the {@link CommandReceivedEvent}.
+     */
+    @Override
+    public void onCommandReceived(CommandReceivedEvent event, CommandHandler handler) {
+        MessageChannel channel = event.getMessageReceivedEvent().getChannel();
+        Guild guild = event.getMessageReceivedEvent().getGuild();
+        ProfanityFilter filter = DiscordBot.getInstance().getProfanityFilter();
+        List<String> args = event.getArgs();
+
+        if (args.isEmpty()) {
+            List<String> words = filter.getGuildWords(guild.getId());
+            User author = event.getMessageReceivedEvent().getAuthor();
+            author.openPrivateChannel().queue(privateChannel -> privateChannel.sendMessage(words.isEmpty()
+                    ? guild.getName() + " has no blacklisted words of its own"
+                    : "Words blacklisted in " + guild.getName() + ": " + String.join(", ", words)).queue());
+            return;
+        }
+
+        String[] words = args.subList(1, args.size()).toArray(new String[args.size() - 1]);
+        if (words.length == 0 || !(args.get(0).equals("add") || args.get(0).equals("remove"))) {
+            channel.sendMessage("Enter \"add\" or \"remove\" followed by one or more words").queue();
+            return;
+        }
+
+        if (args.get(0).equals("add")) {
+            for (String word : words) {
+                if (!Rule.isValid(word)) {
+                    channel.sendMessage("A rule is a word with at most " + Rule.MAX_WILDCARDS + " ? for any letter, "
+                            + "optionally starting or ending with * for any letters").queue();
+                    return;
+                }
+            }
+            filter.addGuildWords(guild.getId(), words);
+        } else {
+            filter.removeGuildWords(guild.getId(), words);
+        }
+        List<String> blacklist = filter.getGuildWords(guild.getId());
+        store(guild.getId(), blacklist);
+        channel.sendMessage("The server blacklist now has " + blacklist.size() + " words").queue();
+    }
+
+    /**
+     * Stores the blacklist of a {@link Guild} in the {@link GuildBlacklistDB}.
+     *
+     * @param guildId The id of the {@link Guild}.
+     * @param words   The words blacklisted by the {@link Guild}.
+     */
+    private static void store(String guildId, List<String> words) {
+        GuildBlacklistDB database = new GuildBlacklistDB();
+        if (words.isEmpty()) {
+            database.delete(guildId);
+        } else {
+            database.upsert(new Setting(guildId, String.join("\n", words)));
+        }
+    }
+
+    /**
+     * Used for identifying if a {@link CommandReceivedEvent} should be sent to the BlacklistCommand. The
+     * BlacklistCommand only works on channels of type {@link ChannelType#TEXT}.
+     *
+     * @param type The {@link ChannelType} to use.
+     * @return True if the BlacklistCommand uses the {@link ChannelType}. False otherwise.
+     */
+    @Override
+    public boolean usesChannel(ChannelType type) {
+        return type == ChannelType.TEXT;
+    }
+
+    /**
+     * Used for accessing a description of the BlacklistCommand.
+     *
+     * @return A {@link String} description of the BlacklistCommand.
+     */
+    @Override
+    public String getDescription() {
+        return "Shows or changes the words the profanity filter blacklists in this server.";
+    }
+
+    /**
+     * Used for receiving help for using the BlacklistCommand.
+     *
+     * @return A {@link String} description of help for the BlacklistCommand.
+     */
+    @Override
+    public String getHelp() {
+        return "Enter \"add\" or \"remove\" followed by words to change the server blacklist, or no arguments to "
+                + "receive it in a private message. Besides plain words, prefix*, *suffix and *infix* match part of a "
+                + "word and ? matches any one letter. Requires the Manage Server permission.";
+    }
+
+}
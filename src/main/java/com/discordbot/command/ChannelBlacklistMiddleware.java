@@ -0,0 +1,73 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link CommandMiddleware} dropping commands sent in blacklisted channels.
+ */
+public class ChannelBlacklistMiddleware implements CommandMiddleware {
+
+    /**
+     * The key to use for the setting holding the comma separated ids of the blacklisted channels
+     */
+    public static final String SETTING_CHANNELS = "command_blacklisted_channels";
+
+    private volatile Set<String> channels = Collections.emptySet();
+
+    /**
+     * Accessor for the name of the ChannelBlacklistMiddleware.
+     *
+     * @return the name of the ChannelBlacklistMiddleware.
+     */
+    @Override
+    public String getName() {
+        return "channel blacklist";
+    }
+
+    /**
+     * The ChannelBlacklistMiddleware only needs to run if a channel is blacklisted.
+     *
+     * @return <tt>true</tt> if a channel is blacklisted, <tt>false</tt> otherwise.
+     */
+    @Override
+    public boolean isActive() {
+        return !channels.isEmpty();
+    }
+
+    /**
+     * Drops commands sent in blacklisted channels.
+     *
+     * @param event    The {@link MessageReceivedEvent} containing the command.
+     * @param content  The content of the message.
+     * @param listener The {@link CommandListener} the command resolved to.
+     * @return <tt>true</tt> if the channel is not blacklisted, <tt>false</tt> otherwise.
+     */
+    @Override
+    public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+        return !channels.contains(event.getChannel().getId());
+    }
+
+    /**
+     * Accessor for the ids of the blacklisted channels.
+     *
+     * @return an unmodifiable {@link Set} of channel ids.
+     */
+    public Set<String> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Mutator for the ids of the blacklisted channels.
+     *
+     * @param channels The ids of the channels to blacklist.
+     */
+    public void setChannels(Collection<String> channels) {
+        this.channels = Collections.unmodifiableSet(new HashSet<>(channels));
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.discordbot.command;
 
+import net.dv8tion.jda.core.Permission;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -20,4 +22,40 @@ public @interface Command {
      * @return the default enabled status for the Command
      */
     boolean enabled() default false;
+
+    /**
+     * @return the maximum number of commands the {@link CommandExecutor} will run at once for the Command
+     */
+    int concurrency() default CommandExecutor.DEFAULT_CONCURRENCY;
+
+    /**
+     * @return the maximum number of commands the {@link CommandExecutor} will queue for the Command before rejecting
+     */
+    int queueSize() default CommandExecutor.DEFAULT_QUEUE_SIZE;
+
+    /**
+     * @return the number of times each user can use the Command per {@link #limitPeriod()}, or 0 for no limit
+     */
+    int userLimit() default 0;
+
+    /**
+     * @return the number of times the Command can be used in each guild per {@link #limitPeriod()}, or 0 for no limit
+     */
+    int guildLimit() default 0;
+
+    /**
+     * @return the period in seconds over which {@link #userLimit()} and {@link #guildLimit()} are refilled
+     */
+    int limitPeriod() default 60;
+
+    /**
+     * @return the {@link Permission}s a member needs in the channel to use the Command
+     */
+    Permission[] permissions() default {};
+
+    /**
+     * @return <tt>false</tt> if the Command is run even when it contains profanity, such as a command that edits the
+     * blacklist
+     */
+    boolean filterProfanity() default true;
 }
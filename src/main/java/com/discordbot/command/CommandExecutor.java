@@ -0,0 +1,331 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.MessageBuilder;
+import net.dv8tion.jda.core.entities.MessageChannel;
+import net.dv8tion.jda.core.utils.SimpleLog;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link CommandListener}s off the JDA event thread. Each registered {@link CommandListener} gets its own lane:
+ * a small pool of daemon threads limited by {@link Command#concurrency()} in front of a queue bounded by
+ * {@link Command#queueSize()}. When a lane is saturated the command is rejected and the rejection message is sent to
+ * the channel instead, so a burst of one command can't stall the gateway or starve the other commands.
+ */
+public class CommandExecutor {
+
+    /**
+     * The key to use for the rejection message setting
+     */
+    public static final String SETTING_REJECTION_MESSAGE = "command_rejection_message";
+    /**
+     * The concurrency used for {@link CommandListener}s that are not annotated with {@link Command}
+     */
+    public static final int DEFAULT_CONCURRENCY = 1;
+    /**
+     * The queue size used for {@link CommandListener}s that are not annotated with {@link Command}
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 16;
+    /**
+     * The default message sent when a command is rejected
+     */
+    public static final String DEFAULT_REJECTION_MESSAGE = ", I'm too busy for that right now. Try again in a moment.";
+
+    private static final SimpleLog LOG = SimpleLog.getLog("ComExecutor");
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final Map<CommandListener, Lane> lanes = new ConcurrentHashMap<>();
+    private final CommandMetrics metrics;
+
+    private volatile String rejectionMessage = DEFAULT_REJECTION_MESSAGE;
+
+    /**
+     * @param metrics The {@link CommandMetrics} to record each command in.
+     */
+    public CommandExecutor(CommandMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates a lane for a {@link CommandListener}. The concurrency and queue size are read from its {@link Command}
+     * annotation if it has one.
+     *
+     * @param tag      The tag identifying the {@link CommandListener}, used for naming threads and statistics.
+     * @param listener The {@link CommandListener} to create a lane for.
+     */
+    public void register(String tag, CommandListener listener) {
+        Command command = listener.getClass().getAnnotation(Command.class);
+        int concurrency = command == null ? DEFAULT_CONCURRENCY : Math.max(1, command.concurrency());
+        int queueSize = command == null ? DEFAULT_QUEUE_SIZE : Math.max(1, command.queueSize());
+
+        Lane previous = lanes.put(listener, new Lane(tag, concurrency, queueSize, metrics.getRecorder(tag)));
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Removes the lane of a {@link CommandListener}. Commands already queued are still run.
+     *
+     * @param listener The {@link CommandListener} to remove the lane for.
+     */
+    public void unregister(CommandListener listener) {
+        Lane lane = lanes.remove(listener);
+        if (lane != null) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * Queues a {@link CommandReceivedEvent} to be handled by a {@link CommandListener} on its lane. If the lane is
+     * saturated, the rejection message is sent to the channel the {@link CommandReceivedEvent} came from. The command
+     * is timed by the {@link CommandMetrics} and counted as an error if the {@link CommandListener} throws.
+     *
+     * @param listener The {@link CommandListener} to handle the {@link CommandReceivedEvent}.
+     * @param event    The {@link CommandReceivedEvent} to handle.
+     * @param handler  The {@link CommandHandler} that pushed the {@link CommandReceivedEvent}.
+     * @return <tt>true</tt> if the command was queued, <tt>false</tt> if it was rejected or the {@link CommandListener}
+     * was removed.
+     */
+    public boolean execute(CommandListener listener, CommandReceivedEvent event, CommandHandler handler) {
+        Lane lane = lanes.get(listener);
+        if (lane == null) {
+            // the listener was removed after the tag was resolved
+            return false;
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            lane.pool.execute(() -> {
+                lane.recordQueueTime(System.nanoTime() - queuedAt);
+                CommandMetrics.Timer timer = lane.recorder.start();
+                event.setTimer(timer);
+                try {
+                    listener.handleCommandReceived(event, handler);
+                    if (!event.isAsync()) {
+                        timer.complete();
+                    }
+                } catch (RuntimeException e) {
+                    timer.fail();
+                    LOG.log(e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (lane.pool.isShutdown()) {
+                // the listener was removed or replaced after its lane was looked up
+                return false;
+            }
+            lane.rejected.increment();
+            LOG.warn("Command rejected, " + lane.tag + " is saturated");
+
+            MessageChannel channel = event.getMessageReceivedEvent().getChannel();
+            channel.sendMessage(
+                    new MessageBuilder()
+                            .append(event.getMessageReceivedEvent().getAuthor())
+                            .append(rejectionMessage)
+                            .build())
+                    .queue();
+            return false;
+        }
+    }
+
+    /**
+     * Mutator for the message sent when a command is rejected. The message is appended to a mention of the author.
+     *
+     * @param rejectionMessage The message to send when a command is rejected.
+     */
+    public void setRejectionMessage(String rejectionMessage) {
+        this.rejectionMessage = rejectionMessage;
+    }
+
+    /**
+     * Accessor for a snapshot of the statistics of each lane.
+     *
+     * @return a {@link Map} of tags to {@link Stats}, sorted by tag.
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        for (Lane lane : lanes.values()) {
+            stats.put(lane.tag, lane.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Shuts down every lane. Commands already queued are still run.
+     */
+    public void shutdown() {
+        for (Lane lane : lanes.values()) {
+            lane.shutdown();
+        }
+        lanes.clear();
+    }
+
+    /**
+     * A bounded pool and the statistics for one {@link CommandListener}.
+     */
+    private static class Lane {
+
+        private final String tag;
+        private final ThreadPoolExecutor pool;
+        private final CommandMetrics.Recorder recorder;
+
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+
+        /**
+         * @param tag         The tag identifying the {@link CommandListener}.
+         * @param concurrency The maximum number of commands to run at once.
+         * @param queueSize   The maximum number of commands waiting to run.
+         * @param recorder    The {@link CommandMetrics.Recorder} of the tag.
+         */
+        Lane(String tag, int concurrency, int queueSize, CommandMetrics.Recorder recorder) {
+            this.tag = tag;
+            this.recorder = recorder;
+
+            AtomicInteger threadCount = new AtomicInteger();
+            pool = new ThreadPoolExecutor(concurrency, concurrency, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "Command-" + tag + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            // idle commands shouldn't hold on to threads
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        /**
+         * Records the time a command spent waiting in the queue.
+         *
+         * @param nanos The time spent in the queue in nanoseconds.
+         */
+        void recordQueueTime(long nanos) {
+            started.increment();
+            queueNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxQueueNanos.get()) && !maxQueueNanos.compareAndSet(max, nanos)) {
+                // retry until the max is at least nanos
+            }
+        }
+
+        /**
+         * Takes a snapshot of the statistics of the lane.
+         *
+         * @return the {@link Stats}.
+         */
+        Stats stats() {
+            long count = started.sum();
+            return new Stats(count, rejected.sum(), pool.getActiveCount(), pool.getQueue().size(),
+                    count == 0 ? 0 : queueNanos.sum() / count, maxQueueNanos.get());
+        }
+
+        /**
+         * Shuts down the pool. Commands already queued are still run.
+         */
+        void shutdown() {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * A snapshot of the statistics of one {@link CommandListener}'s lane.
+     */
+    public static class Stats {
+
+        private final long started;
+        private final long rejected;
+        private final int active;
+        private final int queued;
+        private final long averageQueueNanos;
+        private final long maxQueueNanos;
+
+        /**
+         * @param started           The number of commands that have started running.
+         * @param rejected          The number of commands rejected because the lane was saturated.
+         * @param active            The number of commands running.
+         * @param queued            The number of commands waiting to run.
+         * @param averageQueueNanos The average time commands spent waiting to run in nanoseconds.
+         * @param maxQueueNanos     The longest time a command spent waiting to run in nanoseconds.
+         */
+        Stats(long started, long rejected, int active, int queued, long averageQueueNanos, long maxQueueNanos) {
+            this.started = started;
+            this.rejected = rejected;
+            this.active = active;
+            this.queued = queued;
+            this.averageQueueNanos = averageQueueNanos;
+            this.maxQueueNanos = maxQueueNanos;
+        }
+
+        /**
+         * Accessor for the number of commands that have started running.
+         *
+         * @return the number of commands that have started running.
+         */
+        public long getStarted() {
+            return started;
+        }
+
+        /**
+         * Accessor for the number of commands rejected because the lane was saturated.
+         *
+         * @return the number of commands rejected.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Accessor for the number of commands running.
+         *
+         * @return the number of commands running.
+         */
+        public int getActive() {
+            return active;
+        }
+
+        /**
+         * Accessor for the number of commands waiting to run.
+         *
+         * @return the number of commands waiting to run.
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * Accessor for the average time commands spent waiting to run.
+         *
+         * @return the average time in nanoseconds.
+         */
+        public long getAverageQueueNanos() {
+            return averageQueueNanos;
+        }
+
+        /**
+         * Accessor for the longest time a command spent waiting to run.
+         *
+         * @return the longest time in nanoseconds.
+         */
+        public long getMaxQueueNanos() {
+            return maxQueueNanos;
+        }
+
+    }
+
+}
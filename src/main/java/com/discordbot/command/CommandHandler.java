@@ -1,13 +1,16 @@
 package com.discordbot.command;
 
 import com.discordbot.model.ProfanityFilter;
+import net.dv8tion.jda.core.entities.Guild;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.core.hooks.ListenerAdapter;
 import net.dv8tion.jda.core.utils.SimpleLog;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An implementation of {@link ListenerAdapter} that handles {@link MessageReceivedEvent} and pushes {@link
@@ -19,13 +22,33 @@ public class CommandHandler extends ListenerAdapter {
 
     private static final SimpleLog LOG = SimpleLog.getLog("ComHandler");
 
-    private final Map<String, CommandListener> listeners = new HashMap<>();
+    private final CommandRegistry listeners = new CommandRegistry();
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final CommandExecutor executor = new CommandExecutor(metrics);
+    private final CommandRateLimiter rateLimiter = new CommandRateLimiter();
+    private final CommandPrefixes prefixes = new CommandPrefixes();
+    private final CommandPipeline pipeline = new CommandPipeline();
+    private final ChannelBlacklistMiddleware channelBlacklist = new ChannelBlacklistMiddleware();
+    private final PermissionMiddleware permissions = new PermissionMiddleware();
+    private final ProfanityMiddleware profanity = new ProfanityMiddleware();
     private final ProfanityFilter profanityFilter;
 
-    private boolean profanityFilterEnabled = false;
+    private volatile boolean profanityFilterEnabled = false;
 
+    /**
+     * Builds the default {@link CommandPipeline}: the channel type, the channel blacklist, permissions, the
+     * {@link ProfanityFilter} and finally the {@link CommandRateLimiter}, so commands dropped by an earlier stage don't
+     * use up the limits.
+     *
+     * @param profanityFilter The {@link ProfanityFilter} to check commands against.
+     */
     public CommandHandler(ProfanityFilter profanityFilter) {
         this.profanityFilter = profanityFilter;
+        pipeline.add(new ChannelTypeMiddleware())
+                .add(channelBlacklist)
+                .add(permissions)
+                .add(profanity)
+                .add(new RateLimitMiddleware());
     }
 
     /**
@@ -35,8 +58,19 @@ public class CommandHandler extends ListenerAdapter {
      * @param listener The {@link CommandListener} which will react to {@link CommandReceivedEvent}.
      * @return A reference to this CommandHandler.
      */
-    public CommandHandler addCommandListener(String tag, CommandListener listener) {
-        listeners.put(tag, listener);
+    public synchronized CommandHandler addCommandListener(String tag, CommandListener listener) {
+        executor.register(tag, listener);
+        rateLimiter.register(listener);
+        permissions.register(listener);
+        profanity.register(listener);
+        CommandListener previous = listeners.put(tag, listener);
+        if (previous != null && previous != listener) {
+            executor.unregister(previous);
+            rateLimiter.unregister(previous);
+            permissions.unregister(previous);
+            profanity.unregister(previous);
+        }
+        pipeline.rebuild();
         LOG.info("Command loaded: " + listener.getClass().getName());
         return this;
     }
@@ -64,19 +98,19 @@ public class CommandHandler extends ListenerAdapter {
      *                {@link Class} of the {@link CommandListener}.
      * @return A reference to this CommandHandler.
      */
-    public CommandHandler setCommandListener(CommandSetting setting) {
+    public synchronized CommandHandler setCommandListener(CommandSetting setting) {
+        CommandListener current = listeners.get(setting.getTag());
         if (setting.isEnabled()) {
             // if key exists, we won't try to add the command
-            if (listeners.containsKey(setting.getTag())) {
+            if (current != null) {
                 // if key is from a different listener, disable the setting
-                if (listeners.get(setting.getTag()).getClass() != setting.getCls()) {
+                if (current.getClass() != setting.getCls()) {
                     setting.setEnabled(false);
                 }
                 return this;
             }
             addCommandListener(setting.getTag(), setting.getCls());
-        } else if (listeners.containsKey(setting.getTag())
-                && listeners.get(setting.getTag()).getClass() == setting.getCls()) {
+        } else if (current != null && current.getClass() == setting.getCls()) {
             // only remove if the class matches the current class
             removeCommandListener(setting.getTag());
         }
@@ -89,22 +123,27 @@ public class CommandHandler extends ListenerAdapter {
      * @param tag The tag identifying the {@link CommandListener} to remove.
      * @return A reference to this CommandHandler.
      */
-    public CommandHandler removeCommandListener(String tag) {
-        if (listeners.containsKey(tag)) {
-            String className = listeners.get(tag).getClass().getName();
-            listeners.remove(tag);
-            LOG.info("Command removed: " + className);
+    public synchronized CommandHandler removeCommandListener(String tag) {
+        CommandListener removed = listeners.remove(tag);
+        if (removed != null) {
+            executor.unregister(removed);
+            rateLimiter.unregister(removed);
+            permissions.unregister(removed);
+            profanity.unregister(removed);
+            pipeline.rebuild();
+            LOG.info("Command removed: " + removed.getClass().getName());
         }
         return this;
     }
 
     /**
-     * Accessor for a {@link Map} of the registered {@link CommandListener}.
+     * Accessor for a {@link Map} of the registered {@link CommandListener}. The {@link Map} is an immutable snapshot
+     * and will not reflect later changes.
      *
      * @return A {@link Map} of the registered {@link CommandListener}
      */
     public Map<String, CommandListener> getCommandListeners() {
-        return new HashMap<>(listeners);
+        return listeners.snapshot();
     }
 
     /**
@@ -114,7 +153,54 @@ public class CommandHandler extends ListenerAdapter {
      * @return A reference to this CommandHandler.
      */
     public boolean isTag(String tag) {
-        return listeners.containsKey(tag);
+        return listeners.contains(tag);
+    }
+
+    /**
+     * Accessor for the version of the registered {@link CommandListener}s. The version only changes when a
+     * {@link CommandListener} is actually added, replaced or removed, so it can be used to invalidate caches.
+     *
+     * @return the version of the registered {@link CommandListener}s.
+     */
+    public long getCommandListenersVersion() {
+        return listeners.getVersion();
+    }
+
+    /**
+     * Accessor for the {@link CommandExecutor} that runs the registered {@link CommandListener}s.
+     *
+     * @return the {@link CommandExecutor}.
+     */
+    public CommandExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Accessor for the {@link CommandMetrics} recording the invocations, errors and latency of each command.
+     *
+     * @return the {@link CommandMetrics}.
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Accessor for the {@link CommandRateLimiter} that limits how often the registered {@link CommandListener}s are
+     * used.
+     *
+     * @return the {@link CommandRateLimiter}.
+     */
+    public CommandRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Accessor for the {@link CommandPrefixes} holding the prefix of each guild.
+     *
+     * @return the {@link CommandPrefixes}.
+     */
+    public CommandPrefixes getPrefixes() {
+        return prefixes;
     }
 
     /**
@@ -126,28 +212,193 @@ public class CommandHandler extends ListenerAdapter {
      */
     public CommandHandler enableProfanityFilter(boolean enabled) {
         profanityFilterEnabled = enabled;
+        pipeline.rebuild();
+        return this;
+    }
+
+    /**
+     * Mutator for the ids of the channels commands are ignored in.
+     *
+     * @param channels The ids of the channels to blacklist.
+     * @return A reference to this CommandHandler.
+     */
+    public CommandHandler setBlacklistedChannels(Collection<String> channels) {
+        channelBlacklist.setChannels(channels);
+        pipeline.rebuild();
         return this;
     }
 
     /**
-     * Handles a {@link MessageReceivedEvent} by creating a {@link CommandReceivedEvent} and pushing it to the
-     * registered {@link CommandListener}.
+     * Accessor for the ids of the channels commands are ignored in.
+     *
+     * @return an unmodifiable {@link Set} of channel ids.
+     */
+    public Set<String> getBlacklistedChannels() {
+        return channelBlacklist.getChannels();
+    }
+
+    /**
+     * Accessor for the {@link CommandPipeline} every command passes through before it is queued. Additional
+     * {@link CommandMiddleware} can be added to it.
+     *
+     * @return the {@link CommandPipeline}.
+     */
+    public CommandPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Handles a {@link MessageReceivedEvent} by creating a {@link CommandReceivedEvent} and queueing it on the
+     * {@link CommandExecutor} for the registered {@link CommandListener}. The {@link CommandListener} never runs on the
+     * JDA event thread. Messages must start with the prefix of their guild from {@link CommandPrefixes} and pass the
+     * {@link CommandPipeline} before they are tokenized.
      *
      * @param event The {@link MessageReceivedEvent} to handle.
      */
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
-        if (event.getMessage().getContent().startsWith(CommandReceivedEvent.PREFIX)
-                && !event.getAuthor().isBot()
-                && (!profanityFilterEnabled || profanityFilter.filter(event.getMessage().getContent()).isEmpty())) {
-            CommandReceivedEvent commandEvent = CommandReceivedEvent.buildCommand(event);
-            for (Map.Entry<String, CommandListener> entry : listeners.entrySet()) {
-                if (commandEvent.getTag().equals(entry.getKey())
-                        && entry.getValue().usesChannel(event.getChannelType())) {
-                    entry.getValue().onCommandReceived(commandEvent, this);
-                }
+        String content = event.getMessage().getContent();
+        Guild guild = event.getGuild();
+        String prefix = prefixes.match(content, guild == null ? null : guild.getId());
+        if (prefix == null || event.getAuthor().isBot()) {
+            return;
+        }
+
+        // resolve the tag in place, the command is only tokenized if a listener wants it
+        int tagStart = CommandTokenizer.tagStart(content, prefix.length());
+        CommandListener listener = listeners.get(content, tagStart, CommandTokenizer.tagEnd(content, tagStart));
+        if (listener == null || !pipeline.accept(event, content, listener)) {
+            return;
+        }
+
+        CommandTokenizer tokens = new CommandTokenizer(content, prefix.length());
+        executor.execute(listener, CommandReceivedEvent.buildCommand(event, tokens, prefix), this);
+    }
+
+    /**
+     * Checks if a {@link MessageReceivedEvent} is a command of a {@link CommandListener} that opts out of the
+     * {@link ProfanityFilter} with {@link Command#filterProfanity()}, sent where and by whom the command is allowed to
+     * run. Messages other {@link net.dv8tion.jda.core.hooks.EventListener}s filter for profanity can be skipped when
+     * this returns <tt>true</tt>, so running such a command isn't punished as profanity.
+     *
+     * @param event The {@link MessageReceivedEvent} to check.
+     * @return <tt>true</tt> if the message is an exempt command, <tt>false</tt> otherwise.
+     */
+    public boolean isExempt(MessageReceivedEvent event) {
+        String content = event.getMessage().getContent();
+        Guild guild = event.getGuild();
+        String prefix = prefixes.match(content, guild == null ? null : guild.getId());
+        if (prefix == null) {
+            return false;
+        }
+
+        int tagStart = CommandTokenizer.tagStart(content, prefix.length());
+        CommandListener listener = listeners.get(content, tagStart, CommandTokenizer.tagEnd(content, tagStart));
+        return listener != null
+                && profanity.isExempt(listener)
+                && listener.usesChannel(event.getChannelType())
+                && channelBlacklist.accept(event, content, listener)
+                && permissions.accept(event, content, listener);
+    }
+
+    /**
+     * A {@link CommandMiddleware} dropping commands from channels the {@link CommandListener} doesn't use.
+     */
+    private static class ChannelTypeMiddleware implements CommandMiddleware {
+
+        @Override
+        public String getName() {
+            return "channel type";
+        }
+
+        @Override
+        public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+            return listener.usesChannel(event.getChannelType());
+        }
+
+    }
+
+    /**
+     * A {@link CommandMiddleware} dropping commands containing profanity, active while the {@link ProfanityFilter} is
+     * enabled. The verdict is shared with the {@link com.discordbot.util.ProfanityFilterListener} through the message
+     * id. Commands of a {@link CommandListener} that opts out with {@link Command#filterProfanity()} are let through.
+     */
+    private class ProfanityMiddleware implements CommandMiddleware {
+
+        private final Set<CommandListener> exempt = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Reads whether a {@link CommandListener} opts out of the {@link ProfanityFilter}.
+         *
+         * @param listener The {@link CommandListener} to read.
+         */
+        void register(CommandListener listener) {
+            Command command = listener.getClass().getAnnotation(Command.class);
+            if (command != null && !command.filterProfanity()) {
+                exempt.add(listener);
+            } else {
+                exempt.remove(listener);
             }
         }
+
+        /**
+         * Forgets a {@link CommandListener}.
+         *
+         * @param listener The {@link CommandListener} to forget.
+         */
+        void unregister(CommandListener listener) {
+            exempt.remove(listener);
+        }
+
+        /**
+         * Checks if a {@link CommandListener} opts out of the {@link ProfanityFilter}.
+         *
+         * @param listener The {@link CommandListener} to check.
+         * @return <tt>true</tt> if the {@link CommandListener} opts out, <tt>false</tt> otherwise.
+         */
+        boolean isExempt(CommandListener listener) {
+            return exempt.contains(listener);
+        }
+
+        @Override
+        public String getName() {
+            return "profanity filter";
+        }
+
+        @Override
+        public boolean isActive() {
+            return profanityFilterEnabled;
+        }
+
+        @Override
+        public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+            if (isExempt(listener)) {
+                return true;
+            }
+            Guild guild = event.getGuild();
+            return profanityFilter.filter(guild == null ? null : guild.getId(), event.getMessage().getId(), content)
+                    .isEmpty();
+        }
+
+    }
+
+    /**
+     * A {@link CommandMiddleware} dropping commands over their {@link CommandRateLimiter} limits. Limited commands are
+     * dropped silently, since replying would let a spammer make the bot spam.
+     */
+    private class RateLimitMiddleware implements CommandMiddleware {
+
+        @Override
+        public String getName() {
+            return "cooldown";
+        }
+
+        @Override
+        public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+            Guild guild = event.getGuild();
+            return rateLimiter.tryAcquire(listener, event.getAuthor().getId(), guild == null ? null : guild.getId());
+        }
+
     }
 
 }
@@ -8,43 +8,106 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 /**
- * Loads {@link CommandListener}s annotated with {@link Command} from a package.
+ * Loads {@link CommandListener}s annotated with {@link Command}. By default the {@link CommandSetting}s are read from
+ * <tt>CommandIndex</tt>, which is generated at compile time, so startup does not scan the classpath. Packages from
+ * external jars can still be scanned with {@link Reflections} by listing them, comma separated, in the
+ * {@value #PROPERTY_SCAN_PACKAGES} system property or by using {@link #CommandLoader(String)}.
  */
 public class CommandLoader {
 
+    /**
+     * The system property listing extra packages to scan for {@link CommandListener}s
+     */
+    public static final String PROPERTY_SCAN_PACKAGES = "discordbot.command.packages";
+
+    private static final SimpleLog LOG = SimpleLog.getLog("CommandLoader");
+
+    private static final String INDEX = "com.discordbot.command.CommandIndex";
+    private static final String DEFAULT_PACKAGE = "com.discordbot";
+
     private List<CommandSetting> commandSettings;
 
+    /**
+     * Loads the {@link CommandSetting}s from the generated index, along with any packages listed in the
+     * {@value #PROPERTY_SCAN_PACKAGES} system property. If the index was not generated, the default package is scanned
+     * instead.
+     */
+    public CommandLoader() {
+        commandSettings = new ArrayList<>();
+
+        List<CommandSetting> indexed = loadIndex();
+        if (indexed != null) {
+            commandSettings.addAll(indexed);
+        } else {
+            LOG.warn("CommandIndex not found, scanning " + DEFAULT_PACKAGE);
+            commandSettings.addAll(scan(DEFAULT_PACKAGE));
+        }
+
+        String packages = System.getProperty(PROPERTY_SCAN_PACKAGES);
+        if (packages != null) {
+            for (String classPath : packages.split(",")) {
+                if (!classPath.trim().isEmpty()) {
+                    commandSettings.addAll(scan(classPath.trim()));
+                }
+            }
+        }
+    }
+
     /**
      * @param classPath The classpath of the package to search for {@link CommandListener}s in.
      */
     public CommandLoader(String classPath) {
+        commandSettings = scan(classPath);
+    }
+
+    /**
+     * Reads the {@link CommandSetting}s from the generated index. The index is loaded reflectively since it only exists
+     * once the annotation processor has run.
+     *
+     * @return the {@link List<CommandSetting>} or <tt>null</tt> if there is no index.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<CommandSetting> loadIndex() {
+        try {
+            return (List<CommandSetting>) Class.forName(INDEX).getMethod("getCommandSettings").invoke(null);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            LOG.log(e);
+            return null;
+        }
+    }
+
+    /**
+     * Scans a package for {@link CommandListener}s annotated with {@link Command} using {@link Reflections}.
+     *
+     * @param classPath The classpath of the package to search for {@link CommandListener}s in.
+     * @return the {@link List<CommandSetting>} found.
+     */
+    private static List<CommandSetting> scan(String classPath) {
         Reflections reflections = new Reflections(new ConfigurationBuilder()
                 .filterInputsBy(new FilterBuilder().includePackage(classPath))
                 .setUrls(ClasspathHelper.forPackage(classPath))
                 .setScanners(new SubTypesScanner(), new TypeAnnotationsScanner()));
 
-        Set<Class<? extends CommandListener>> subTypes = reflections.getSubTypesOf(CommandListener.class);
-        Set<Class<?>> annotated = reflections.getTypesAnnotatedWith(Command.class);
-
-        commandSettings = new ArrayList<>();
-        for (Class<? extends CommandListener> c1 : subTypes) {
-            for (Class<?> c2 : annotated) {
-                if (c1.isAssignableFrom(c2) && c2.isAssignableFrom(c1)) {
-                    Command cmd = c2.getAnnotation(Command.class);
-                    commandSettings.add(new CommandSetting(c1, cmd.tag(), cmd.enabled()));
-                }
+        List<CommandSetting> settings = new ArrayList<>();
+        for (Class<?> cls : reflections.getTypesAnnotatedWith(Command.class, true)) {
+            if (CommandListener.class.isAssignableFrom(cls) && !Modifier.isAbstract(cls.getModifiers())) {
+                Command cmd = cls.getAnnotation(Command.class);
+                settings.add(new CommandSetting(cls.asSubclass(CommandListener.class), cmd.tag(), cmd.enabled()));
             }
         }
+        return settings;
     }
 
     /**
-     * Accessor for the {@link List<CommandSetting>} generated by {@link Reflections}.
+     * Accessor for the {@link List<CommandSetting>} that were loaded.
      *
      * @return the {@link List<CommandSetting>}.
      */
@@ -53,7 +116,7 @@ public class CommandLoader {
     }
 
     /**
-     * Constructs {@link CommandListener} instances using the classes found by {@link Reflections} constructor.
+     * Constructs {@link CommandListener} instances using the constructor of the classes that were loaded.
      *
      * @return a {@link List<CommandListener>} of the {@link CommandListener}s constructed.
      */
@@ -63,7 +126,7 @@ public class CommandLoader {
             try {
                 listeners.add(setting.getCls().getConstructor().newInstance());
             } catch (Exception e) {
-                SimpleLog.getLog("CommandLoader").log(e);
+                LOG.log(e);
             }
         }
         return Collections.unmodifiableList(listeners);
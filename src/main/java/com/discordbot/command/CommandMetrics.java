@@ -0,0 +1,301 @@
+package com.discordbot.command;
+
+import com.discordbot.util.LatencyHistogram;
+import net.dv8tion.jda.core.utils.SimpleLog;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the invocations and errors of each command and records how long they take end to end, from the moment a
+ * {@link CommandListener} starts handling the command until the work it started is done. Commands that finish their
+ * work asynchronously call {@link CommandReceivedEvent#startAsync()} and complete the returned {@link Timer} when the
+ * work is done.
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+    /**
+     * The name the CommandMetrics is registered under with JMX
+     */
+    public static final String OBJECT_NAME = "com.discordbot:type=CommandMetrics";
+
+    private static final SimpleLog LOG = SimpleLog.getLog("ComMetrics");
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * Accessor for the {@link Recorder} of a tag, creating it if needed. The {@link Recorder} is kept if the
+     * {@link CommandListener} of the tag is replaced, so its metrics are not lost.
+     *
+     * @param tag The tag of the command.
+     * @return the {@link Recorder}.
+     */
+    public Recorder getRecorder(String tag) {
+        return recorders.computeIfAbsent(tag, Recorder::new);
+    }
+
+    /**
+     * Accessor for the metrics of every command that has been run.
+     *
+     * @return an unmodifiable {@link List} of {@link Snapshot}s sorted by tag.
+     */
+    @Override
+    public List<Snapshot> getCommands() {
+        Map<String, Snapshot> sorted = new TreeMap<>();
+        for (Recorder recorder : recorders.values()) {
+            sorted.put(recorder.tag, recorder.snapshot());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(sorted.values()));
+    }
+
+    /**
+     * Clears the metrics of every command.
+     */
+    @Override
+    public void reset() {
+        for (Recorder recorder : recorders.values()) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * Registers the CommandMetrics with the platform {@link MBeanServer}, replacing any CommandMetrics registered
+     * before.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            LOG.log(e);
+        }
+    }
+
+    /**
+     * The counters and {@link LatencyHistogram} of one tag.
+     */
+    public static class Recorder {
+
+        private final String tag;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        /**
+         * @param tag The tag of the command.
+         */
+        Recorder(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * Starts timing an invocation of the command.
+         *
+         * @return the {@link Timer} for the invocation.
+         */
+        public Timer start() {
+            invocations.increment();
+            return new Timer(this, System.nanoTime());
+        }
+
+        /**
+         * Takes a snapshot of the metrics.
+         *
+         * @return the {@link Snapshot}.
+         */
+        Snapshot snapshot() {
+            return new Snapshot(tag, invocations.sum(), errors.sum(), toMillis(latency.getMean()),
+                    toMillis(latency.getPercentile(50)), toMillis(latency.getPercentile(90)),
+                    toMillis(latency.getPercentile(99)), toMillis(latency.getMax()));
+        }
+
+        /**
+         * Clears the metrics.
+         */
+        void reset() {
+            invocations.reset();
+            errors.reset();
+            latency.reset();
+        }
+
+        /**
+         * Converts nanoseconds to milliseconds.
+         *
+         * @param nanos The time in nanoseconds.
+         * @return the time in milliseconds.
+         */
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+    }
+
+    /**
+     * Times one invocation of a command. Only the first call to {@link #complete()} or {@link #fail()} is recorded, and
+     * nothing is recorded for a Timer without a {@link Recorder}.
+     */
+    public static class Timer {
+
+        private final Recorder recorder;
+        private final long start;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        /**
+         * @param recorder The {@link Recorder} of the command, or <tt>null</tt> to record nothing.
+         * @param start    The time the invocation started from {@link System#nanoTime()}.
+         */
+        Timer(Recorder recorder, long start) {
+            this.recorder = recorder;
+            this.start = start;
+        }
+
+        /**
+         * Records the invocation as successful.
+         */
+        public void complete() {
+            if (recorder != null && done.compareAndSet(false, true)) {
+                recorder.latency.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Records the invocation as failed.
+         */
+        public void fail() {
+            if (recorder != null && done.compareAndSet(false, true)) {
+                recorder.errors.increment();
+                recorder.latency.record(System.nanoTime() - start);
+            }
+        }
+
+    }
+
+    /**
+     * A snapshot of the metrics of one command.
+     */
+    public static class Snapshot {
+
+        private final String tag;
+        private final long invocations;
+        private final long errors;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p90Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        /**
+         * @param tag         The tag of the command.
+         * @param invocations The number of times the command was run.
+         * @param errors      The number of times the command failed.
+         * @param meanMillis  The mean latency in milliseconds.
+         * @param p50Millis   The median latency in milliseconds.
+         * @param p90Millis   The 90th percentile latency in milliseconds.
+         * @param p99Millis   The 99th percentile latency in milliseconds.
+         * @param maxMillis   The highest latency in milliseconds.
+         */
+        @ConstructorProperties({"tag", "invocations", "errors", "meanMillis", "p50Millis", "p90Millis", "p99Millis",
+                "maxMillis"})
+        public Snapshot(String tag, long invocations, long errors, double meanMillis, double p50Millis,
+                        double p90Millis, double p99Millis, double maxMillis) {
+            this.tag = tag;
+            this.invocations = invocations;
+            this.errors = errors;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p90Millis = p90Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        /**
+         * Accessor for the tag of the command.
+         *
+         * @return the tag of the command.
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Accessor for the number of times the command was run.
+         *
+         * @return the number of invocations.
+         */
+        public long getInvocations() {
+            return invocations;
+        }
+
+        /**
+         * Accessor for the number of times the command failed.
+         *
+         * @return the number of errors.
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Accessor for the mean latency.
+         *
+         * @return the mean latency in milliseconds.
+         */
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        /**
+         * Accessor for the median latency.
+         *
+         * @return the median latency in milliseconds.
+         */
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        /**
+         * Accessor for the 90th percentile latency.
+         *
+         * @return the 90th percentile latency in milliseconds.
+         */
+        public double getP90Millis() {
+            return p90Millis;
+        }
+
+        /**
+         * Accessor for the 99th percentile latency.
+         *
+         * @return the 99th percentile latency in milliseconds.
+         */
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        /**
+         * Accessor for the highest latency.
+         *
+         * @return the highest latency in milliseconds.
+         */
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.discordbot.command;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link CommandMetrics}, registered as <tt>com.discordbot:type=CommandMetrics</tt>.
+ */
+public interface CommandMetricsMXBean {
+
+    /**
+     * Accessor for the metrics of every command that has been run.
+     *
+     * @return a {@link List} of {@link CommandMetrics.Snapshot}s sorted by tag.
+     */
+    List<CommandMetrics.Snapshot> getCommands();
+
+    /**
+     * Clears the metrics of every command.
+     */
+    void reset();
+
+}
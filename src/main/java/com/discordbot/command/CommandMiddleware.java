@@ -0,0 +1,38 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+/**
+ * A check run by the {@link CommandPipeline} on every command after its {@link CommandListener} has been resolved and
+ * before it is tokenized. Middleware must be thread safe since it is called from the JDA event threads.
+ */
+public interface CommandMiddleware {
+
+    /**
+     * Accessor for the name of the CommandMiddleware, used for its statistics.
+     *
+     * @return the name of the CommandMiddleware.
+     */
+    String getName();
+
+    /**
+     * Checks if the CommandMiddleware needs to run. Inactive CommandMiddleware is left out when the
+     * {@link CommandPipeline} is rebuilt, so it costs nothing per message.
+     *
+     * @return <tt>true</tt> if the CommandMiddleware needs to run, <tt>false</tt> otherwise. The default value is true.
+     */
+    default boolean isActive() {
+        return true;
+    }
+
+    /**
+     * Checks a command.
+     *
+     * @param event    The {@link MessageReceivedEvent} containing the command.
+     * @param content  The content of the message.
+     * @param listener The {@link CommandListener} the command resolved to.
+     * @return <tt>true</tt> to let the command through, <tt>false</tt> to drop it.
+     */
+    boolean accept(MessageReceivedEvent event, String content, CommandListener listener);
+
+}
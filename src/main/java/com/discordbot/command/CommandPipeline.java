@@ -0,0 +1,192 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ordered chain of {@link CommandMiddleware}. The active {@link CommandMiddleware} is compiled into a flat array
+ * whenever the chain or its configuration changes, so running the chain is a plain loop over an array. Each stage
+ * counts its calls and rejections and the time spent in it.
+ */
+public class CommandPipeline {
+
+    private final Map<CommandMiddleware, Stage> middleware = new LinkedHashMap<>();
+
+    private volatile Stage[] stages = new Stage[0];
+
+    /**
+     * Appends a {@link CommandMiddleware} to the end of the chain.
+     *
+     * @param middleware The {@link CommandMiddleware} to add.
+     * @return A reference to this CommandPipeline.
+     */
+    public synchronized CommandPipeline add(CommandMiddleware middleware) {
+        this.middleware.putIfAbsent(middleware, new Stage(middleware));
+        rebuild();
+        return this;
+    }
+
+    /**
+     * Removes a {@link CommandMiddleware} from the chain.
+     *
+     * @param middleware The {@link CommandMiddleware} to remove.
+     * @return A reference to this CommandPipeline.
+     */
+    public synchronized CommandPipeline remove(CommandMiddleware middleware) {
+        if (this.middleware.remove(middleware) != null) {
+            rebuild();
+        }
+        return this;
+    }
+
+    /**
+     * Compiles the active {@link CommandMiddleware} into the array that is run. Must be called whenever a
+     * {@link CommandMiddleware} changes whether it is active.
+     */
+    public synchronized void rebuild() {
+        List<Stage> active = new ArrayList<>();
+        for (Stage stage : middleware.values()) {
+            if (stage.middleware.isActive()) {
+                active.add(stage);
+            }
+        }
+        stages = active.toArray(new Stage[active.size()]);
+    }
+
+    /**
+     * Runs a command through every active {@link CommandMiddleware}, stopping at the first one that drops it.
+     *
+     * @param event    The {@link MessageReceivedEvent} containing the command.
+     * @param content  The content of the message.
+     * @param listener The {@link CommandListener} the command resolved to.
+     * @return <tt>true</tt> if every {@link CommandMiddleware} let the command through, <tt>false</tt> otherwise.
+     */
+    public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+        Stage[] stages = this.stages;
+        for (Stage stage : stages) {
+            long start = System.nanoTime();
+            boolean accepted = stage.middleware.accept(event, content, listener);
+            stage.nanos.add(System.nanoTime() - start);
+            stage.calls.increment();
+            if (!accepted) {
+                stage.rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accessor for a snapshot of the statistics of each {@link CommandMiddleware}, in the order they run.
+     *
+     * @return an unmodifiable {@link List} of {@link Stats}.
+     */
+    public synchronized List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (Stage stage : middleware.values()) {
+            long calls = stage.calls.sum();
+            stats.add(new Stats(stage.middleware.getName(), stage.middleware.isActive(), calls, stage.rejected.sum(),
+                    calls == 0 ? 0 : stage.nanos.sum() / calls));
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * A {@link CommandMiddleware} and its counters. The counters survive rebuilds.
+     */
+    private static class Stage {
+
+        private final CommandMiddleware middleware;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        /**
+         * @param middleware The {@link CommandMiddleware} run by the Stage.
+         */
+        Stage(CommandMiddleware middleware) {
+            this.middleware = middleware;
+        }
+
+    }
+
+    /**
+     * A snapshot of the statistics of one {@link CommandMiddleware}.
+     */
+    public static class Stats {
+
+        private final String name;
+        private final boolean active;
+        private final long calls;
+        private final long rejected;
+        private final long averageNanos;
+
+        /**
+         * @param name         The name of the {@link CommandMiddleware}.
+         * @param active       Whether the {@link CommandMiddleware} is active.
+         * @param calls        The number of commands checked.
+         * @param rejected     The number of commands dropped.
+         * @param averageNanos The average time spent checking a command in nanoseconds.
+         */
+        Stats(String name, boolean active, long calls, long rejected, long averageNanos) {
+            this.name = name;
+            this.active = active;
+            this.calls = calls;
+            this.rejected = rejected;
+            this.averageNanos = averageNanos;
+        }
+
+        /**
+         * Accessor for the name of the {@link CommandMiddleware}.
+         *
+         * @return the name of the {@link CommandMiddleware}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Checks if the {@link CommandMiddleware} is active.
+         *
+         * @return <tt>true</tt> if the {@link CommandMiddleware} is active, <tt>false</tt> otherwise.
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Accessor for the number of commands checked.
+         *
+         * @return the number of commands checked.
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Accessor for the number of commands dropped.
+         *
+         * @return the number of commands dropped.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Accessor for the average time spent checking a command.
+         *
+         * @return the average time in nanoseconds.
+         */
+        public long getAverageNanos() {
+            return averageNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.discordbot.command;
+
+import com.discordbot.model.Setting;
+import com.discordbot.sql.PrefixDB;
+import net.dv8tion.jda.core.entities.Guild;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The command prefix of each {@link Guild}, cached in memory and stored in the {@link PrefixDB}. Guilds without a
+ * prefix of their own, and private channels, use {@link CommandReceivedEvent#PREFIX}.
+ * <p>
+ * The prefixes are compiled into an immutable snapshot with a table of every character a prefix can start with, so
+ * most messages are rejected by a single bit test and the rest by one lookup and one comparison. Matching never
+ * touches the database and never allocates.
+ */
+public class CommandPrefixes {
+
+    /**
+     * The maximum length of a prefix
+     */
+    public static final int MAX_LENGTH = 8;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+    /**
+     * Loads the prefixes stored in the {@link PrefixDB}, replacing any in memory.
+     */
+    public synchronized void load() {
+        List<Setting> settings = new PrefixDB().selectAll();
+        if (settings != null) {
+            Map<String, String> prefixes = new HashMap<>();
+            for (Setting setting : settings) {
+                if (isValid(setting.getValue())) {
+                    prefixes.put(setting.getKey(), setting.getValue());
+                }
+            }
+            snapshot = new Snapshot(prefixes);
+        }
+    }
+
+    /**
+     * Finds the prefix a message starts with.
+     *
+     * @param content The content of the message.
+     * @param guildId The id of the {@link Guild} the message was received in, or <tt>null</tt> if it was not received
+     *                in a {@link Guild}.
+     * @return the prefix or <tt>null</tt> if the message does not start with the prefix.
+     */
+    public String match(String content, String guildId) {
+        return snapshot.match(content, guildId);
+    }
+
+    /**
+     * Accessor for the prefix of a {@link Guild}.
+     *
+     * @param guild The {@link Guild}, or <tt>null</tt> for private channels.
+     * @return the prefix.
+     */
+    public String getPrefix(Guild guild) {
+        return guild == null ? CommandReceivedEvent.PREFIX : getPrefix(guild.getId());
+    }
+
+    /**
+     * Accessor for the prefix of a {@link Guild}.
+     *
+     * @param guildId The id of the {@link Guild}.
+     * @return the prefix.
+     */
+    public String getPrefix(String guildId) {
+        return snapshot.prefixes.getOrDefault(guildId, CommandReceivedEvent.PREFIX);
+    }
+
+    /**
+     * Mutator for the prefix of a {@link Guild}. The prefix is stored in the {@link PrefixDB} first and only used once
+     * it is stored, so a prefix is never lost on restart.
+     *
+     * @param guildId The id of the {@link Guild}.
+     * @param prefix  The prefix, or <tt>null</tt> to use {@link CommandReceivedEvent#PREFIX}.
+     * @return <tt>true</tt> if the prefix was stored, <tt>false</tt> if the {@link PrefixDB} could not be written and
+     * the prefix is unchanged.
+     * @throws IllegalArgumentException if the prefix is not valid.
+     */
+    public synchronized boolean setPrefix(String guildId, String prefix) {
+        if (prefix != null && !isValid(prefix)) {
+            throw new IllegalArgumentException("Invalid prefix: " + prefix);
+        }
+        if (prefix != null && prefix.equals(CommandReceivedEvent.PREFIX)) {
+            prefix = null;
+        }
+
+        if (prefix == null) {
+            // a guild without a prefix of its own has no row to delete
+            if (snapshot.prefixes.containsKey(guildId) && new PrefixDB().delete(guildId) == 0) {
+                return false;
+            }
+        } else if (new PrefixDB().upsert(new Setting(guildId, prefix)) == 0) {
+            return false;
+        }
+
+        put(guildId, prefix);
+        return true;
+    }
+
+    /**
+     * Sets the prefix of a {@link Guild} in memory only.
+     *
+     * @param guildId The id of the {@link Guild}.
+     * @param prefix  The prefix, or <tt>null</tt> to use {@link CommandReceivedEvent#PREFIX}.
+     */
+    synchronized void put(String guildId, String prefix) {
+        Map<String, String> copy = new HashMap<>(snapshot.prefixes);
+        if (prefix == null) {
+            copy.remove(guildId);
+        } else {
+            copy.put(guildId, prefix);
+        }
+        snapshot = new Snapshot(copy);
+    }
+
+    /**
+     * Checks if a prefix can be used. A prefix must be between 1 and {@link #MAX_LENGTH} characters and must not
+     * contain whitespace.
+     *
+     * @param prefix The prefix to check.
+     * @return <tt>true</tt> if the prefix can be used, <tt>false</tt> otherwise.
+     */
+    public static boolean isValid(String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.isWhitespace(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An immutable view of the prefixes.
+     */
+    private static class Snapshot {
+
+        private final Map<String, String> prefixes;
+
+        // one bit for every char a prefix starts with
+        private final long[] firstChars = new long[(Character.MAX_VALUE + 1) / Long.SIZE];
+
+        /**
+         * @param prefixes The prefix of each guild. The {@link Map} must not be modified afterwards.
+         */
+        Snapshot(Map<String, String> prefixes) {
+            this.prefixes = prefixes;
+            mark(CommandReceivedEvent.PREFIX.charAt(0));
+            for (String prefix : prefixes.values()) {
+                mark(prefix.charAt(0));
+            }
+        }
+
+        /**
+         * Finds the prefix a message starts with.
+         *
+         * @param content The content of the message.
+         * @param guildId The id of the guild, or <tt>null</tt>.
+         * @return the prefix or <tt>null</tt> if the message does not start with the prefix.
+         */
+        String match(String content, String guildId) {
+            if (content.isEmpty()) {
+                return null;
+            }
+            char first = content.charAt(0);
+            if ((firstChars[first >>> 6] & (1L << first)) == 0) {
+                return null;
+            }
+
+            String prefix = guildId == null
+                    ? CommandReceivedEvent.PREFIX
+                    : prefixes.getOrDefault(guildId, CommandReceivedEvent.PREFIX);
+            return content.startsWith(prefix) ? prefix : null;
+        }
+
+        /**
+         * Marks a char as the start of a prefix.
+         *
+         * @param c The char to mark.
+         */
+        private void mark(char c) {
+            firstChars[c >>> 6] |= 1L << c;
+        }
+
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.discordbot.command;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often each user and each guild can use a {@link CommandListener}. The limits are read from the
+ * {@link Command#userLimit()}, {@link Command#guildLimit()} and {@link Command#limitPeriod()} of the
+ * {@link CommandListener}'s annotation.
+ * <p>
+ * Each user and guild gets a token bucket holding up to the limit, refilled evenly over the period. A bucket is a
+ * single {@link AtomicLong} holding the time it will be full again, so acquiring is one compare-and-set and never
+ * locks. Buckets that have refilled are idle and are evicted in the background.
+ */
+public class CommandRateLimiter {
+
+    private static final long SWEEP_PERIOD_SECONDS = 60;
+
+    // marks a bucket that has been evicted and must not be used
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<CommandListener, Limits> limits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CommandRateLimiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Default constructor schedules the eviction of idle buckets.
+     */
+    public CommandRateLimiter() {
+        sweeper.scheduleWithFixedDelay(this::evictIdle, SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reads the limits for a {@link CommandListener}. {@link CommandListener}s without limits are not tracked.
+     *
+     * @param listener The {@link CommandListener} to read the limits for.
+     */
+    public void register(CommandListener listener) {
+        Command command = listener.getClass().getAnnotation(Command.class);
+        if (command != null && command.limitPeriod() > 0 && (command.userLimit() > 0 || command.guildLimit() > 0)) {
+            long period = TimeUnit.SECONDS.toNanos(command.limitPeriod());
+            limits.put(listener, new Limits(
+                    command.userLimit() > 0 ? new Limit(command.userLimit(), period) : null,
+                    command.guildLimit() > 0 ? new Limit(command.guildLimit(), period) : null));
+        } else {
+            limits.remove(listener);
+        }
+    }
+
+    /**
+     * Stops tracking a {@link CommandListener}.
+     *
+     * @param listener The {@link CommandListener} to stop tracking.
+     */
+    public void unregister(CommandListener listener) {
+        limits.remove(listener);
+    }
+
+    /**
+     * Takes a token from the user's and guild's buckets for a {@link CommandListener}.
+     *
+     * @param listener The {@link CommandListener} being used.
+     * @param userId   The id of the {@link net.dv8tion.jda.core.entities.User} using it.
+     * @param guildId  The id of the {@link net.dv8tion.jda.core.entities.Guild} it is used in, or <tt>null</tt> if it
+     *                 was not used in a guild.
+     * @return <tt>true</tt> if the command is allowed, <tt>false</tt> if either bucket is empty.
+     */
+    public boolean tryAcquire(CommandListener listener, String userId, String guildId) {
+        Limits limit = limits.get(listener);
+        if (limit == null) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        if (limit.user != null && !limit.user.tryAcquire(userId, now)) {
+            return false;
+        }
+        if (limit.guild != null && guildId != null && !limit.guild.tryAcquire(guildId, now)) {
+            // give the user back their token since the command won't run
+            if (limit.user != null) {
+                limit.user.refund(userId);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stops evicting idle buckets.
+     */
+    public void shutdown() {
+        sweeper.shutdown();
+    }
+
+    /**
+     * Evicts every bucket that has refilled, since a full bucket is no different from a new one.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Limits limit : limits.values()) {
+            if (limit.user != null) {
+                limit.user.evictIdle(now);
+            }
+            if (limit.guild != null) {
+                limit.guild.evictIdle(now);
+            }
+        }
+    }
+
+    /**
+     * The user and guild {@link Limit}s of one {@link CommandListener}.
+     */
+    private static class Limits {
+
+        private final Limit user;
+        private final Limit guild;
+
+        /**
+         * @param user  The {@link Limit} for each user, or <tt>null</tt> if users are not limited.
+         * @param guild The {@link Limit} for each guild, or <tt>null</tt> if guilds are not limited.
+         */
+        Limits(Limit user, Limit guild) {
+            this.user = user;
+            this.guild = guild;
+        }
+
+    }
+
+    /**
+     * The token buckets for one kind of key. Each bucket stores the time at which it will be full again, and taking a
+     * token pushes that time forward by the time it takes to refill one token.
+     */
+    private static class Limit {
+
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final long refillNanos;
+        private final long burstNanos;
+
+        /**
+         * @param capacity    The number of tokens a full bucket holds.
+         * @param periodNanos The time it takes an empty bucket to refill in nanoseconds.
+         */
+        Limit(int capacity, long periodNanos) {
+            refillNanos = periodNanos / capacity;
+            burstNanos = periodNanos - refillNanos;
+        }
+
+        /**
+         * Takes a token from a bucket.
+         *
+         * @param key The key of the bucket.
+         * @param now The current time from {@link System#nanoTime()}.
+         * @return <tt>true</tt> if a token was taken, <tt>false</tt> if the bucket is empty.
+         */
+        boolean tryAcquire(String key, long now) {
+            while (true) {
+                AtomicLong bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+                }
+
+                long fullAt = bucket.get();
+                if (fullAt == EVICTED) {
+                    // lost a race with eviction, let it finish removing the bucket and use a new one
+                    buckets.remove(key, bucket);
+                    continue;
+                }
+
+                long start = Math.max(fullAt, now);
+                if (start - now > burstNanos) {
+                    return false;
+                }
+                if (bucket.compareAndSet(fullAt, start + refillNanos)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Puts a token back in a bucket.
+         *
+         * @param key The key of the bucket.
+         */
+        void refund(String key) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                long fullAt;
+                do {
+                    fullAt = bucket.get();
+                } while (fullAt != EVICTED && !bucket.compareAndSet(fullAt, fullAt - refillNanos));
+            }
+        }
+
+        /**
+         * Evicts every bucket that is full.
+         *
+         * @param now The current time from {@link System#nanoTime()}.
+         */
+        void evictIdle(long now) {
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                AtomicLong bucket = entry.getValue();
+                long fullAt = bucket.get();
+                if (fullAt - now <= 0 && bucket.compareAndSet(fullAt, EVICTED)) {
+                    buckets.remove(entry.getKey(), bucket);
+                }
+            }
+        }
+
+    }
+
+}
@@ -2,9 +2,6 @@ package com.discordbot.command;
 
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -13,23 +10,28 @@ import java.util.List;
 public class CommandReceivedEvent {
 
     /**
-     * The prefix for commands.
+     * The default prefix for commands, used by guilds without a prefix of their own.
+     *
+     * @see CommandPrefixes
      */
-    public static String PREFIX = "!";
+    public static final String PREFIX = "!";
 
     private MessageReceivedEvent event;
-    private String tag;
-    private List<String> args;
+    private CommandTokenizer tokens;
+    private String prefix;
+
+    private volatile CommandMetrics.Timer timer = null;
+    private volatile boolean async = false;
 
     /**
-     * @param event The {@link MessageReceivedEvent} causing this CommandReceivedEvent.
-     * @param tag   The tag identifying the command.
-     * @param args  The arguments passed with the command.
+     * @param event  The {@link MessageReceivedEvent} causing this CommandReceivedEvent.
+     * @param tokens The {@link CommandTokenizer} over the content of the {@link MessageReceivedEvent}.
+     * @param prefix The prefix the command was received with.
      */
-    private CommandReceivedEvent(MessageReceivedEvent event, String tag, List<String> args) {
+    private CommandReceivedEvent(MessageReceivedEvent event, CommandTokenizer tokens, String prefix) {
         this.event = event;
-        this.tag = tag;
-        this.args = args;
+        this.tokens = tokens;
+        this.prefix = prefix;
     }
 
     /**
@@ -40,29 +42,19 @@ public class CommandReceivedEvent {
      * @return The resulting CommandReceivedEvent.
      */
     public static CommandReceivedEvent buildCommand(MessageReceivedEvent event) {
-        String message = event.getMessage().getContent().replaceFirst(CommandReceivedEvent.PREFIX, "").trim();
-        String command = "";
-        List<String> args = new ArrayList<>();
-
-        // split the message by spaces, the first String will be the tag, the rest are args
-        Iterator<String> words = new ArrayList<>(Arrays.asList(message.split(" "))).iterator();
-        if (words.hasNext()) {
-            command = words.next();
-        }
-        while (words.hasNext()) {
-            StringBuilder builder = new StringBuilder(words.next());
-            while (words.hasNext() && builder.charAt(0) == '"' && builder.charAt(builder.length() - 1) != '"') {
-                builder.append(' ').append(words.next());
-            }
-
-            // if arg is surrounded in quotes, remove the quotes
-            if (builder.charAt(0) == '"' && builder.length() > 1) {
-                args.add(builder.substring(1, builder.length() - (builder.charAt(builder.length() - 1) == '"' ? 1 : 0)));
-            } else {
-                args.add(builder.toString());
-            }
-        }
-        return new CommandReceivedEvent(event, command, args);
+        return buildCommand(event, new CommandTokenizer(event.getMessage().getContent(), PREFIX.length()), PREFIX);
+    }
+
+    /**
+     * Builds a CommandReceivedEvent from a {@link MessageReceivedEvent} that has already been tokenized.
+     *
+     * @param event  The {@link MessageReceivedEvent} to handle.
+     * @param tokens The {@link CommandTokenizer} over the content of the {@link MessageReceivedEvent}.
+     * @param prefix The prefix the command was received with.
+     * @return The resulting CommandReceivedEvent.
+     */
+    static CommandReceivedEvent buildCommand(MessageReceivedEvent event, CommandTokenizer tokens, String prefix) {
+        return new CommandReceivedEvent(event, tokens, prefix);
     }
 
     /**
@@ -74,22 +66,62 @@ public class CommandReceivedEvent {
         return event;
     }
 
+    /**
+     * Accessor for the prefix the command was received with, which is the prefix of the guild it was received in.
+     *
+     * @return The prefix the command was received with.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Marks the command as finishing asynchronously. The {@link CommandMetrics} stop timing the command when the
+     * returned {@link CommandMetrics.Timer} is completed rather than when the {@link CommandListener} returns, so the
+     * {@link CommandListener} must complete or fail it once its work is done.
+     *
+     * @return The {@link CommandMetrics.Timer} of the command.
+     */
+    public CommandMetrics.Timer startAsync() {
+        async = true;
+        CommandMetrics.Timer current = timer;
+        return current != null ? current : new CommandMetrics.Timer(null, 0);
+    }
+
+    /**
+     * Checks if the command finishes asynchronously.
+     *
+     * @return <tt>true</tt> if {@link #startAsync()} was called, <tt>false</tt> otherwise.
+     */
+    boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Mutator for the {@link CommandMetrics.Timer} of the command.
+     *
+     * @param timer The {@link CommandMetrics.Timer} timing the command.
+     */
+    void setTimer(CommandMetrics.Timer timer) {
+        this.timer = timer;
+    }
+
     /**
      * Accessor for the command's tag.
      *
      * @return The command's tag.
      */
     public String getTag() {
-        return tag;
+        return tokens.getTag();
     }
 
     /**
-     * Accessor for the arguments passed with the command.
+     * Accessor for the arguments passed with the command. Each argument is only built the first time it is read.
      *
      * @return The arguments passed with the command
      */
     public List<String> getArgs() {
-        return args;
+        return tokens.getArgs();
     }
 
 }
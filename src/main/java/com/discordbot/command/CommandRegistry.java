@@ -0,0 +1,184 @@
+package com.discordbot.command;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A copy-on-write registry mapping tags to {@link CommandListener}s. Reads are a single hash lookup against an
+ * immutable snapshot and never lock, so the JDA event threads can resolve tags while listeners are added or removed
+ * from other threads, such as the JavaFX thread. Every change publishes a new snapshot with a higher version, so
+ * anything derived from the registry can be cached until the version changes.
+ */
+public class CommandRegistry {
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), 0);
+
+    /**
+     * Resolves the {@link CommandListener} registered to a tag.
+     *
+     * @param tag The tag identifying the {@link CommandListener}.
+     * @return the {@link CommandListener} or <tt>null</tt> if the tag is not registered.
+     */
+    public CommandListener get(String tag) {
+        return snapshot.map.get(tag);
+    }
+
+    /**
+     * Resolves the {@link CommandListener} registered to the tag found in a region of a {@link String}, without
+     * building a {@link String} for the tag.
+     *
+     * @param content The {@link String} containing the tag.
+     * @param start   The index of the first character of the tag.
+     * @param end     The index after the last character of the tag.
+     * @return the {@link CommandListener} or <tt>null</tt> if the tag is not registered.
+     */
+    public CommandListener get(String content, int start, int end) {
+        return snapshot.get(content, start, end);
+    }
+
+    /**
+     * Checks if a tag is registered.
+     *
+     * @param tag The tag to check.
+     * @return <tt>true</tt> if the tag is registered, <tt>false</tt> otherwise.
+     */
+    public boolean contains(String tag) {
+        return snapshot.map.containsKey(tag);
+    }
+
+    /**
+     * Accessor for the version of the registry. The version increases every time a tag is registered, replaced or
+     * unregistered, and stays the same otherwise.
+     *
+     * @return the version of the registry.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Registers a {@link CommandListener} to a tag, replacing any {@link CommandListener} already registered to it.
+     * Registering the {@link CommandListener} that is already registered to the tag changes nothing.
+     *
+     * @param tag      The tag identifying the {@link CommandListener}.
+     * @param listener The {@link CommandListener} to register.
+     * @return the {@link CommandListener} previously registered to the tag or <tt>null</tt> if there was none.
+     */
+    public synchronized CommandListener put(String tag, CommandListener listener) {
+        if (snapshot.map.get(tag) == listener) {
+            return listener;
+        }
+        Map<String, CommandListener> copy = new HashMap<>(snapshot.map);
+        CommandListener previous = copy.put(tag, listener);
+        snapshot = new Snapshot(copy, snapshot.version + 1);
+        return previous;
+    }
+
+    /**
+     * Unregisters the {@link CommandListener} registered to a tag.
+     *
+     * @param tag The tag identifying the {@link CommandListener}.
+     * @return the {@link CommandListener} that was registered to the tag or <tt>null</tt> if there was none.
+     */
+    public synchronized CommandListener remove(String tag) {
+        if (!snapshot.map.containsKey(tag)) {
+            return null;
+        }
+        Map<String, CommandListener> copy = new HashMap<>(snapshot.map);
+        CommandListener previous = copy.remove(tag);
+        snapshot = new Snapshot(copy, snapshot.version + 1);
+        return previous;
+    }
+
+    /**
+     * Accessor for the current snapshot of the registry. The snapshot is immutable and will not reflect later changes.
+     *
+     * @return an unmodifiable {@link Map} of tags to {@link CommandListener}s.
+     */
+    public Map<String, CommandListener> snapshot() {
+        return snapshot.map;
+    }
+
+    /**
+     * Accessor for the number of registered tags.
+     *
+     * @return the number of registered tags.
+     */
+    public int size() {
+        return snapshot.map.size();
+    }
+
+    /**
+     * An immutable view of the registry. Alongside the {@link Map}, the tags are kept in an open addressing table
+     * hashed with {@link String#hashCode()} so a region of a {@link String} can be looked up in place.
+     */
+    private static class Snapshot {
+
+        private final Map<String, CommandListener> map;
+        private final long version;
+        private final String[] keys;
+        private final CommandListener[] values;
+        private final int mask;
+
+        /**
+         * @param map     The tags and {@link CommandListener}s to index. The {@link Map} must not be modified
+         *                afterwards.
+         * @param version The version of the registry.
+         */
+        Snapshot(Map<String, CommandListener> map, long version) {
+            this.map = Collections.unmodifiableMap(map);
+            this.version = version;
+
+            // keep the table at most half full so probe sequences stay short
+            int capacity = Integer.highestOneBit(Math.max(map.size(), 1) * 4 - 1);
+            keys = new String[capacity];
+            values = new CommandListener[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, CommandListener> entry : map.entrySet()) {
+                int i = spread(entry.getKey().hashCode()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = entry.getKey();
+                values[i] = entry.getValue();
+            }
+        }
+
+        /**
+         * Looks up a region of a {@link String}.
+         *
+         * @param content The {@link String} containing the tag.
+         * @param start   The index of the first character of the tag.
+         * @param end     The index after the last character of the tag.
+         * @return the {@link CommandListener} or <tt>null</tt> if the tag is not registered.
+         */
+        CommandListener get(String content, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + content.charAt(i);
+            }
+
+            int length = end - start;
+            for (int i = spread(hash) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && content.regionMatches(start, key, 0, length)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Mixes the high bits of a hash into the low bits used for indexing.
+         *
+         * @param hash The hash to spread.
+         * @return the spread hash.
+         */
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.discordbot.command;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A single-pass tokenizer over the raw content of a command. The tag and arguments are tracked as offsets into the
+ * content, so locating the tag does not allocate and argument {@link String}s are only built when they are read.
+ * <p>
+ * Arguments are separated by whitespace. An argument starting with a double quote runs until the next double quote
+ * that is followed by whitespace or the end of the content, and the quotes are removed.
+ */
+public class CommandTokenizer {
+
+    private final String content;
+    private final int tagStart;
+    private final int tagEnd;
+
+    private List<String> args = null;
+
+    /**
+     * @param content The raw content of the command.
+     * @param offset  The index in the content where the tag begins, usually the length of the prefix.
+     */
+    public CommandTokenizer(String content, int offset) {
+        this.content = content;
+        tagStart = tagStart(content, offset);
+        tagEnd = tagEnd(content, tagStart);
+    }
+
+    /**
+     * Finds the start of the tag by skipping any whitespace after the prefix.
+     *
+     * @param content The raw content of the command.
+     * @param offset  The index in the content where the tag begins, usually the length of the prefix.
+     * @return the index of the first character of the tag.
+     */
+    public static int tagStart(String content, int offset) {
+        return skipWhitespace(content, offset);
+    }
+
+    /**
+     * Finds the end of the tag.
+     *
+     * @param content  The raw content of the command.
+     * @param tagStart The index of the first character of the tag.
+     * @return the index after the last character of the tag.
+     */
+    public static int tagEnd(String content, int tagStart) {
+        int i = tagStart;
+        while (i < content.length() && !Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Accessor for the index of the first character of the tag.
+     *
+     * @return the index of the first character of the tag.
+     */
+    public int getTagStart() {
+        return tagStart;
+    }
+
+    /**
+     * Accessor for the index after the last character of the tag.
+     *
+     * @return the index after the last character of the tag.
+     */
+    public int getTagEnd() {
+        return tagEnd;
+    }
+
+    /**
+     * Checks the tag against a {@link String} without allocating.
+     *
+     * @param tag The tag to compare with.
+     * @return <tt>true</tt> if the tag matches, <tt>false</tt> otherwise.
+     */
+    public boolean tagEquals(String tag) {
+        return tag.length() == tagEnd - tagStart && content.regionMatches(tagStart, tag, 0, tag.length());
+    }
+
+    /**
+     * Accessor for the tag.
+     *
+     * @return the tag.
+     */
+    public String getTag() {
+        return content.substring(tagStart, tagEnd);
+    }
+
+    /**
+     * Accessor for the arguments. The content is only scanned for arguments the first time this is called, and each
+     * argument {@link String} is only built the first time it is read.
+     *
+     * @return an unmodifiable {@link List} of the arguments.
+     */
+    public List<String> getArgs() {
+        if (args == null) {
+            args = new ArgumentList(content, tagEnd);
+        }
+        return args;
+    }
+
+    /**
+     * Skips any whitespace.
+     *
+     * @param content The {@link String} to scan.
+     * @param i       The index to start at.
+     * @return the index of the next character that is not whitespace.
+     */
+    private static int skipWhitespace(String content, int i) {
+        while (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A lazy {@link List} of arguments backed by offsets into the content.
+     */
+    private static class ArgumentList extends AbstractList<String> {
+
+        private final String content;
+        private final int[] bounds;
+        private final String[] values;
+
+        /**
+         * @param content The raw content of the command.
+         * @param start   The index to start scanning for arguments at.
+         */
+        ArgumentList(String content, int start) {
+            this.content = content;
+            int count = scan(content, start, null);
+            bounds = new int[count * 2];
+            values = new String[count];
+            scan(content, start, bounds);
+        }
+
+        /**
+         * Scans the content for arguments.
+         *
+         * @param content The raw content of the command.
+         * @param i       The index to start scanning at.
+         * @param bounds  The array to record the start and end of each argument in, or <tt>null</tt> to only count.
+         * @return the number of arguments found.
+         */
+        private static int scan(String content, int i, int[] bounds) {
+            int count = 0;
+            int length = content.length();
+            while ((i = skipWhitespace(content, i)) < length) {
+                int start;
+                int end;
+                if (content.charAt(i) == '"') {
+                    // quoted arg, find a closing quote followed by whitespace or the end
+                    start = i + 1;
+                    end = start;
+                    while (end < length && !(content.charAt(end) == '"'
+                            && (end + 1 == length || Character.isWhitespace(content.charAt(end + 1))))) {
+                        end++;
+                    }
+                    i = end < length ? end + 1 : end;
+                } else {
+                    start = i;
+                    end = tagEnd(content, i);
+                    i = end;
+                }
+                if (bounds != null) {
+                    bounds[count * 2] = start;
+                    bounds[count * 2 + 1] = end;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public String get(int index) {
+            String value = values[index];
+            if (value == null) {
+                value = content.substring(bounds[index * 2], bounds[index * 2 + 1]);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+    }
+
+}
@@ -1,21 +1,26 @@
 package com.discordbot.command;
 
 import net.dv8tion.jda.core.MessageBuilder;
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.MessageChannel;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A {@link CommandListener} for handling the help command.
+ * A {@link CommandListener} for handling the help command. The rendered help is cached for each prefix and thrown away
+ * when the {@link CommandListener}s registered to the {@link CommandHandler} change, so a help command is a cache
+ * lookup.
  *
  * @see CommandListener
  */
 @Command(tag = "help", enabled = true)
 public class HelpCommand extends CommandListener {
 
+    private volatile Cache cache = new Cache(null, -1);
+
     /**
      * Handles any {@link CommandReceivedEvent}. Replies on the same {@link net.dv8tion.jda.core.entities.Channel} with
      * a list of {@link CommandListener} and their respective descriptions. If there are arguments, it lists the help
@@ -30,40 +35,41 @@ public class HelpCommand extends CommandListener {
 
         if (handler == null) {
             channel.sendMessage("Unable to help at this time").queue();
-        } else if (event.getArgs().isEmpty()) {
-            Map<String, CommandListener> commands = handler.getCommandListeners();
+            return;
+        }
 
-            MessageBuilder builder = new MessageBuilder();
-            List<String> keys = new LinkedList<>(commands.keySet());
-            Collections.sort(keys);
-            for (String key : keys) {
-                builder.append(CommandReceivedEvent.PREFIX)
-                        .append(key).append('\t')
-                        .append(commands.get(key).getDescription())
-                        .append('\n');
-            }
-            if (!builder.isEmpty()) {
-                builder.replaceLast("\n", "");
-                channel.sendMessage(builder.build()).queue();
+        Rendered rendered = getCache(handler).get(event.getPrefix());
+        if (event.getArgs().isEmpty()) {
+            if (rendered.list != null) {
+                channel.sendMessage(rendered.list).queue();
             }
         } else {
             for (String argument : event.getArgs()) {
-                if (handler.isTag(argument)) {
-                    CommandListener command = handler.getCommandListeners().get(argument);
-                    channel.sendMessage(
-                            new MessageBuilder()
-                                    .append(CommandReceivedEvent.PREFIX)
-                                    .append(argument).append('\t')
-                                    .append(command.getDescription())
-                                    .append(" ")
-                                    .append(command.getHelp())
-                                    .build())
-                            .queue();
+                Message help = rendered.help.get(argument);
+                if (help != null) {
+                    channel.sendMessage(help).queue();
                 }
             }
         }
     }
 
+    /**
+     * Accessor for the {@link Cache} of a {@link CommandHandler}, replacing it if the {@link CommandListener}s have
+     * changed since it was created.
+     *
+     * @param handler The {@link CommandHandler} to render the help of.
+     * @return the {@link Cache}.
+     */
+    private Cache getCache(CommandHandler handler) {
+        Cache cache = this.cache;
+        long version = handler.getCommandListenersVersion();
+        if (cache.handler != handler || cache.version != version) {
+            cache = new Cache(handler, version);
+            this.cache = cache;
+        }
+        return cache;
+    }
+
     /**
      * Used for accessing a description of the HelpCommand.
      *
@@ -84,4 +90,73 @@ public class HelpCommand extends CommandListener {
         return "";
     }
 
+    /**
+     * The help rendered for each prefix from one version of the {@link CommandListener}s of a {@link CommandHandler}.
+     */
+    private static class Cache {
+
+        private final CommandHandler handler;
+        private final long version;
+        private final Map<String, Rendered> rendered = new ConcurrentHashMap<>();
+
+        /**
+         * @param handler The {@link CommandHandler} to render the help of.
+         * @param version The version of the {@link CommandListener}s of the {@link CommandHandler}.
+         */
+        Cache(CommandHandler handler, long version) {
+            this.handler = handler;
+            this.version = version;
+        }
+
+        /**
+         * Accessor for the help rendered with a prefix, rendering it if needed.
+         *
+         * @param prefix The prefix to render the help with.
+         * @return the {@link Rendered} help.
+         */
+        Rendered get(String prefix) {
+            return rendered.computeIfAbsent(prefix, key -> new Rendered(handler.getCommandListeners(), key));
+        }
+
+    }
+
+    /**
+     * The list of commands and the help of each command, rendered with one prefix.
+     */
+    private static class Rendered {
+
+        private final Message list;
+        private final Map<String, Message> help = new HashMap<>();
+
+        /**
+         * @param commands The registered {@link CommandListener}s.
+         * @param prefix   The prefix to render the help with.
+         */
+        Rendered(Map<String, CommandListener> commands, String prefix) {
+            MessageBuilder builder = new MessageBuilder();
+            for (Map.Entry<String, CommandListener> entry : new TreeMap<>(commands).entrySet()) {
+                String tag = entry.getKey();
+                CommandListener command = entry.getValue();
+                builder.append(prefix)
+                        .append(tag).append('\t')
+                        .append(command.getDescription())
+                        .append('\n');
+                help.put(tag, new MessageBuilder()
+                        .append(prefix)
+                        .append(tag).append('\t')
+                        .append(command.getDescription())
+                        .append(" ")
+                        .append(command.getHelp())
+                        .build());
+            }
+            if (!builder.isEmpty()) {
+                builder.replaceLast("\n", "");
+                list = builder.build();
+            } else {
+                list = null;
+            }
+        }
+
+    }
+
 }
@@ -25,7 +25,7 @@ import java.nio.file.Path;
  *
  * @see CommandListener
  */
-@Command(tag = "meme")
+@Command(tag = "meme", concurrency = 2, queueSize = 8, userLimit = 3, guildLimit = 10, limitPeriod = 60)
 public class MemeCommand extends CommandListener {
 
     private static final SimpleLog LOG = SimpleLog.getLog("MemeCommand");
@@ -85,51 +85,49 @@ public class MemeCommand extends CommandListener {
             channel.sendMessage(messageBuilder.build()).queue();
         } else if (args.size() >= 2) {
             // they want a meme, so let's give them one
-            new Thread(() -> {
-                String fileName = args.get(0);
-
-                for (String ext : extensions) {
-                    try {
-                        // load the meme
-                        File file = IOUtils.getResourcePath("command", "meme", fileName + '.' + ext).toFile();
-                        if (!file.exists()) {
-                            continue;
-                        }
-                        final BufferedImage image = ImageIO.read(file);
-
-                        // get the meme graphics and bounds
-                        Graphics2D graphics = (Graphics2D) image.getGraphics();
-                        Rectangle2D topBounds = new Rectangle2D.Double(5, 5,
-                                image.getWidth() - 10, image.getHeight() / 4);
-                        Rectangle2D bottomBounds = new Rectangle2D.Double(5, image.getHeight() - 5,
-                                image.getWidth() - 10, image.getHeight() / 4);
-
-                        // add text to the meme
-                        graphics.setFont(new Font("Impact", Font.PLAIN, 30));
-                        addTextToGraphics(graphics, topBounds, args.get(1).toUpperCase(), Position.TOP);
-                        if (args.size() >= 3) {
-                            addTextToGraphics(graphics, bottomBounds, args.get(2).toUpperCase(), Position.BOTTOM);
-                        }
-                        graphics.dispose();
-
-                        // convert the meme to an InputStream
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        ImageIO.write(image, "png", baos);
-
-                        // send the meme
-                        channel.sendFile(baos.toByteArray(), args.get(0) + ".png",
-                                (new MessageBuilder())
-                                        .append(event.getMessageReceivedEvent().getAuthor().getAsMention())
-                                        .build())
-                                .queue();
-                        return;
-                    } catch (IOException e) {
-                        LOG.log(e);
+            String fileName = args.get(0);
+
+            for (String ext : extensions) {
+                try {
+                    // load the meme
+                    File file = IOUtils.getResourcePath("command", "meme", fileName + '.' + ext).toFile();
+                    if (!file.exists()) {
+                        continue;
+                    }
+                    final BufferedImage image = ImageIO.read(file);
+
+                    // get the meme graphics and bounds
+                    Graphics2D graphics = (Graphics2D) image.getGraphics();
+                    Rectangle2D topBounds = new Rectangle2D.Double(5, 5,
+                            image.getWidth() - 10, image.getHeight() / 4);
+                    Rectangle2D bottomBounds = new Rectangle2D.Double(5, image.getHeight() - 5,
+                            image.getWidth() - 10, image.getHeight() / 4);
+
+                    // add text to the meme
+                    graphics.setFont(new Font("Impact", Font.PLAIN, 30));
+                    addTextToGraphics(graphics, topBounds, args.get(1).toUpperCase(), Position.TOP);
+                    if (args.size() >= 3) {
+                        addTextToGraphics(graphics, bottomBounds, args.get(2).toUpperCase(), Position.BOTTOM);
                     }
+                    graphics.dispose();
+
+                    // convert the meme to an InputStream
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    ImageIO.write(image, "png", baos);
+
+                    // send the meme
+                    channel.sendFile(baos.toByteArray(), args.get(0) + ".png",
+                            (new MessageBuilder())
+                                    .append(event.getMessageReceivedEvent().getAuthor().getAsMention())
+                                    .build())
+                            .queue();
+                    return;
+                } catch (IOException e) {
+                    LOG.log(e);
                 }
-                // did not return, so no file was found
-                channel.sendMessage("There are no memes by the name " + args.get(0)).queue();
-            }).start();
+            }
+            // did not return, so no file was found
+            channel.sendMessage("There are no memes by the name " + args.get(0)).queue();
         } else {
             // no text supplied
             channel.sendMessage("Blank memes aren't fun").queue();
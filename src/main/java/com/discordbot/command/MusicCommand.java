@@ -91,7 +91,8 @@ public class MusicCommand extends CommandListener {
         switch (event.getArgs().get(0)) {
             case "play":
                 if (event.getArgs().size() >= 2) {
-                    loadAndPlay(event.getMessageReceivedEvent().getTextChannel(), event.getArgs().get(1));
+                    loadAndPlay(event.getMessageReceivedEvent().getTextChannel(), event.getArgs().get(1),
+                            event.startAsync());
                 } else {
                     resume(channel);
                 }
@@ -135,8 +136,9 @@ public class MusicCommand extends CommandListener {
      *
      * @param channel  The {@link TextChannel} to reply on.
      * @param trackUrl The URL of the track.
+     * @param timer    The {@link CommandMetrics.Timer} to complete once the track is loaded.
      */
-    private void loadAndPlay(final TextChannel channel, final String trackUrl) {
+    private void loadAndPlay(final TextChannel channel, final String trackUrl, final CommandMetrics.Timer timer) {
         GuildMusicManager musicManager = getGuildAudioPlayer(channel.getGuild());
 
         playerManager.loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
@@ -145,6 +147,7 @@ public class MusicCommand extends CommandListener {
                 channel.sendMessage("Adding to queue " + track.getInfo().title).queue();
 
                 play(channel.getGuild(), musicManager, track);
+                timer.complete();
             }
 
             @Override
@@ -159,16 +162,19 @@ public class MusicCommand extends CommandListener {
                         + " (first track of playlist " + playlist.getName() + ")").queue();
 
                 play(channel.getGuild(), musicManager, firstTrack);
+                timer.complete();
             }
 
             @Override
             public void noMatches() {
                 channel.sendMessage("Nothing found by " + trackUrl).queue();
+                timer.complete();
             }
 
             @Override
             public void loadFailed(FriendlyException exception) {
                 channel.sendMessage("Could not play: " + exception.getMessage()).queue();
+                timer.fail();
             }
         });
     }
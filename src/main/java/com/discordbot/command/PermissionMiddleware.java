@@ -0,0 +1,79 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.Permission;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link CommandMiddleware} dropping commands from members missing the {@link Command#permissions()} of the
+ * {@link CommandListener}. Commands that require permissions are always dropped outside of guilds.
+ */
+public class PermissionMiddleware implements CommandMiddleware {
+
+    private final Map<CommandListener, Permission[]> permissions = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the permissions required by a {@link CommandListener}.
+     *
+     * @param listener The {@link CommandListener} to read the permissions for.
+     */
+    public void register(CommandListener listener) {
+        Command command = listener.getClass().getAnnotation(Command.class);
+        if (command != null && command.permissions().length > 0) {
+            permissions.put(listener, command.permissions());
+        } else {
+            permissions.remove(listener);
+        }
+    }
+
+    /**
+     * Forgets the permissions required by a {@link CommandListener}.
+     *
+     * @param listener The {@link CommandListener} to forget.
+     */
+    public void unregister(CommandListener listener) {
+        permissions.remove(listener);
+    }
+
+    /**
+     * Accessor for the name of the PermissionMiddleware.
+     *
+     * @return the name of the PermissionMiddleware.
+     */
+    @Override
+    public String getName() {
+        return "permissions";
+    }
+
+    /**
+     * The PermissionMiddleware only needs to run if a registered {@link CommandListener} requires permissions.
+     *
+     * @return <tt>true</tt> if a {@link CommandListener} requires permissions, <tt>false</tt> otherwise.
+     */
+    @Override
+    public boolean isActive() {
+        return !permissions.isEmpty();
+    }
+
+    /**
+     * Drops commands from members missing the permissions required by the {@link CommandListener}.
+     *
+     * @param event    The {@link MessageReceivedEvent} containing the command.
+     * @param content  The content of the message.
+     * @param listener The {@link CommandListener} the command resolved to.
+     * @return <tt>true</tt> if the author has the permissions, <tt>false</tt> otherwise.
+     */
+    @Override
+    public boolean accept(MessageReceivedEvent event, String content, CommandListener listener) {
+        Permission[] required = permissions.get(listener);
+        if (required == null) {
+            return true;
+        }
+        Member member = event.getMember();
+        return member != null && member.hasPermission(event.getTextChannel(), required);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.discordbot.command;
+
+import net.dv8tion.jda.core.Permission;
+import net.dv8tion.jda.core.entities.ChannelType;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.MessageChannel;
+
+/**
+ * A {@link CommandListener} for handling the prefix command.
+ *
+ * @see CommandListener
+ */
+@Command(tag = "prefix", enabled = true)
+public class PrefixCommand extends CommandListener {
+
+    /**
+     * Handles any {@link CommandReceivedEvent}. Without arguments, the PrefixCommand replies with the prefix of the
+     * {@link Guild}. With an argument, it sets the prefix of the {@link Guild}, or resets it to the default prefix if
+     * the argument is "reset". Only members with {@link Permission#MANAGE_SERVER} can change the prefix.
+     *
+     * @param event   The {@link CommandReceivedEvent} to handle.
+     * @param handler The {@link CommandHandler} that pushed the {@link CommandReceivedEvent}.
+     */
+    @Override
+    public void onCommandReceived(CommandReceivedEvent event, CommandHandler handler) {
+        MessageChannel channel = event.getMessageReceivedEvent().getChannel();
+        Guild guild = event.getMessageReceivedEvent().getGuild();
+        CommandPrefixes prefixes = handler.getPrefixes();
+
+        if (event.getArgs().isEmpty()) {
+            channel.sendMessage("The prefix is " + prefixes.getPrefix(guild)).queue();
+            return;
+        }
+
+        // check for author's permission
+        Member member = event.getMessageReceivedEvent().getMember();
+        if (member == null || !member.hasPermission(Permission.MANAGE_SERVER)) {
+            channel.sendMessage(event.getMessageReceivedEvent().getAuthor().getName()
+                    + ", you do not have permission to change the prefix").queue();
+            return;
+        }
+
+        String prefix = event.getArgs().get(0);
+        boolean stored;
+        if (prefix.equals("reset")) {
+            stored = prefixes.setPrefix(guild.getId(), null);
+        } else if (CommandPrefixes.isValid(prefix)) {
+            stored = prefixes.setPrefix(guild.getId(), prefix);
+        } else {
+            channel.sendMessage("A prefix must be 1 to " + CommandPrefixes.MAX_LENGTH
+                    + " characters without spaces").queue();
+            return;
+        }
+        if (stored) {
+            channel.sendMessage("The prefix is now " + prefixes.getPrefix(guild)).queue();
+        } else {
+            channel.sendMessage("Sorry, the prefix could not be saved, it is still "
+                    + prefixes.getPrefix(guild)).queue();
+        }
+    }
+
+    /**
+     * Used for identifying if a {@link CommandReceivedEvent} should be sent to the PrefixCommand. The PrefixCommand
+     * only works on channels of type {@link ChannelType#TEXT}.
+     *
+     * @param type The {@link ChannelType} to use.
+     * @return True if the PrefixCommand uses the {@link ChannelType}. False otherwise.
+     */
+    @Override
+    public boolean usesChannel(ChannelType type) {
+        return type == ChannelType.TEXT;
+    }
+
+    /**
+     * Used for accessing a description of the PrefixCommand.
+     *
+     * @return A {@link String} description of the PrefixCommand.
+     */
+    @Override
+    public String getDescription() {
+        return "Shows or changes the command prefix of the server.";
+    }
+
+    /**
+     * Used for receiving help for using the PrefixCommand.
+     *
+     * @return A {@link String} description of help for the PrefixCommand.
+     */
+    @Override
+    public String getHelp() {
+        return "Enter a new prefix as an argument, or \"reset\" to use the default. "
+                + "Requires the Manage Server permission.";
+    }
+
+}
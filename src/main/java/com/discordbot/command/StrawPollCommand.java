@@ -69,12 +69,9 @@ public class StrawPollCommand extends CommandListener {
                 author.getPrivateChannel()
                         .sendMessage("Poll error: your response must be the number of the option").queue();
             } else {
-                // best to do on new thread since we have to wait for private channel to be opened
-                new Thread(() -> {
-                    author.openPrivateChannel().complete();
-                    author.getPrivateChannel()
-                            .sendMessage("Poll error: your response must be the number of the option").queue();
-                }).start();
+                // send once the private channel has been opened instead of blocking for it
+                author.openPrivateChannel().queue(privateChannel -> privateChannel
+                        .sendMessage("Poll error: your response must be the number of the option").queue());
             }
         } catch (IndexOutOfBoundsException e) {
             // if we don't have a private channel open, we will have to open a new one
@@ -82,12 +79,9 @@ public class StrawPollCommand extends CommandListener {
                 author.getPrivateChannel()
                         .sendMessage("Poll error: your choice was not a valid option").queue();
             } else {
-                // best to do on new thread since we have to wait for private channel to be opened
-                new Thread(() -> {
-                    author.openPrivateChannel().complete();
-                    author.getPrivateChannel()
-                            .sendMessage("Poll error: your choice was not a valid option").queue();
-                }).start();
+                // send once the private channel has been opened instead of blocking for it
+                author.openPrivateChannel().queue(privateChannel -> privateChannel
+                        .sendMessage("Poll error: your choice was not a valid option").queue());
             }
         }
     }
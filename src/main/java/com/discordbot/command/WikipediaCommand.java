@@ -16,14 +16,15 @@ import java.io.IOException;
  *
  * @see CommandListener
  */
-@Command(tag = "wiki")
+@Command(tag = "wiki", concurrency = 4, userLimit = 5, guildLimit = 20, limitPeriod = 60)
 public class WikipediaCommand extends CommandListener {
 
     private static final SimpleLog LOG = SimpleLog.getLog("WikipediaCommand");
 
     /**
      * Handles any {@link CommandReceivedEvent}. Replies on the same {@link net.dv8tion.jda.core.entities.Channel} with
-     * an extract from Wikipedia. If there are multiple pages with the same title, a list will be sent instead.
+     * an extract from Wikipedia. If there are multiple pages with the same title, a list will be sent instead. The
+     * command is recorded as failed in the {@link CommandMetrics} if Wikipedia can't be reached.
      *
      * @param event   The {@link CommandReceivedEvent} to handle.
      * @param handler The {@link CommandHandler} that pushed the {@link CommandReceivedEvent}.
@@ -46,39 +47,40 @@ public class WikipediaCommand extends CommandListener {
 
         String topic = String.join("%20", event.getArgs());
 
-        // going to have to connect to a website, so do this in a new thread
-        new Thread(() -> {
-            try {
-                // get pages with extracts for the topic
-                String query = queryExtracts(topic);
-                if (query == null) {
-                    // there is no page for the topic
-                    channel.sendMessage(
-                            new MessageBuilder()
-                                    .append("Sorry ")
-                                    .append(author.getAsMention())
-                                    .append(", Wikipedia doesn't know what you're talking about")
-                                    .build())
-                            .queue();
-                } else if (query.endsWith(" refer to:") || query.endsWith(" refers to:")) {
-                    channel.sendMessage(query + "\n" + queryLinks(topic)).queue();
-                } else if (query.length() >= 2000) {
-                    // max message length is 2000 characters, so we may have to split up the query
-                    for (String paragraph : query.split("\n")) {
-                        while (paragraph.length() >= 2000) {
-                            int cut = paragraph.lastIndexOf(" ", 2000);
-                            channel.sendMessage(paragraph.substring(0, cut));
-                            paragraph = paragraph.substring(cut + 1);
-                        }
-                        channel.sendMessage(paragraph).queue();
+        // the CommandExecutor runs this off the event thread, so we can connect to the website here
+        CommandMetrics.Timer timer = event.startAsync();
+        try {
+            // get pages with extracts for the topic
+            String query = queryExtracts(topic);
+            if (query == null) {
+                // there is no page for the topic
+                channel.sendMessage(
+                        new MessageBuilder()
+                                .append("Sorry ")
+                                .append(author.getAsMention())
+                                .append(", Wikipedia doesn't know what you're talking about")
+                                .build())
+                        .queue();
+            } else if (query.endsWith(" refer to:") || query.endsWith(" refers to:")) {
+                channel.sendMessage(query + "\n" + queryLinks(topic)).queue();
+            } else if (query.length() >= 2000) {
+                // max message length is 2000 characters, so we may have to split up the query
+                for (String paragraph : query.split("\n")) {
+                    while (paragraph.length() >= 2000) {
+                        int cut = paragraph.lastIndexOf(" ", 2000);
+                        channel.sendMessage(paragraph.substring(0, cut));
+                        paragraph = paragraph.substring(cut + 1);
                     }
-                } else {
-                    channel.sendMessage(query).queue();
+                    channel.sendMessage(paragraph).queue();
                 }
-            } catch (IOException e) {
-                LOG.log(e);
+            } else {
+                channel.sendMessage(query).queue();
             }
-        }).start();
+            timer.complete();
+        } catch (IOException e) {
+            LOG.log(e);
+            timer.fail();
+        }
     }
 
     /**
@@ -10,6 +10,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 
@@ -18,12 +19,12 @@ import java.util.ArrayList;
  *
  * @see CommandListener
  */
-@Command(tag = "xkcd")
+@Command(tag = "xkcd", concurrency = 4, userLimit = 5, guildLimit = 20, limitPeriod = 60)
 public class XKCDCommand extends CommandListener {
 
     /**
      * Handles a {@link CommandReceivedEvent}. Replies on the same {@link net.dv8tion.jda.core.entities.Channel} with
-     * an xkcd comic.
+     * an xkcd comic. The command is recorded as failed in the {@link CommandMetrics} if xkcd can't be reached.
      *
      * @param event   The {@link CommandReceivedEvent} to handle.
      * @param handler The {@link CommandHandler} that pushed the {@link CommandReceivedEvent}.
@@ -56,39 +57,48 @@ public class XKCDCommand extends CommandListener {
         // finish the url
         urlBuilder.append("info.0.json");
 
-        // going to have to connect to a website, so do this in a new thread
-        new Thread(() -> {
+        // the CommandExecutor runs this off the event thread, so we can connect to the website here
+        CommandMetrics.Timer timer = event.startAsync();
+        try {
+            JSONObject comic = IOUtils.readJsonFromUrl(urlBuilder.toString());
 
-            try {
-                JSONObject comic = IOUtils.readJsonFromUrl(urlBuilder.toString());
+            Integer comicNum = comic.getInt("num");
+            String title = comic.getString("title");
+            String altText = comic.getString("alt");
+            String imageURL = comic.getString("img");
+            String comicURL = "https://xkcd.com/" + comicNum + "/";
 
-                Integer comicNum = comic.getInt("num");
-                String title = comic.getString("title");
-                String altText = comic.getString("alt");
-                String imageURL = comic.getString("img");
-                String comicURL = "https://xkcd.com/" + comicNum + "/";
-
-                // build the message
-                channel.sendMessage(
-                        new MessageEmbedImpl()
-                                .setAuthor(new MessageEmbed.AuthorInfo("xkcd", "https://xkcd.com/",
-                                        "https://xkcd.com/s/0b7742.png", "https://xkcd.com/s/0b7742.png"))
-                                .setTitle(title)
-                                .setUrl(comicURL)
-                                .setImage(new MessageEmbed.ImageInfo(
-                                        imageURL, imageURL, 1, 1))
-                                .setFields(new ArrayList<>())
-                                .setFooter(new MessageEmbed.Footer(altText, null, null)))
-                        .queue();
-            } catch (IOException | JSONException e) {
-                channel.sendMessage(
-                        new MessageBuilder()
-                                .append(author.getAsMention())
-                                .append(", that comic doesn't exist")
-                                .build())
-                        .queue();
-            }
-        }).start();
+            // build the message
+            channel.sendMessage(
+                    new MessageEmbedImpl()
+                            .setAuthor(new MessageEmbed.AuthorInfo("xkcd", "https://xkcd.com/",
+                                    "https://xkcd.com/s/0b7742.png", "https://xkcd.com/s/0b7742.png"))
+                            .setTitle(title)
+                            .setUrl(comicURL)
+                            .setImage(new MessageEmbed.ImageInfo(
+                                    imageURL, imageURL, 1, 1))
+                            .setFields(new ArrayList<>())
+                            .setFooter(new MessageEmbed.Footer(altText, null, null)))
+                    .queue();
+            timer.complete();
+        } catch (FileNotFoundException | JSONException e) {
+            // xkcd answers 404 for a comic that doesn't exist, that's the user's mistake and not a failure
+            channel.sendMessage(
+                    new MessageBuilder()
+                            .append(author.getAsMention())
+                            .append(", that comic doesn't exist")
+                            .build())
+                    .queue();
+            timer.complete();
+        } catch (IOException e) {
+            channel.sendMessage(
+                    new MessageBuilder()
+                            .append(author.getAsMention())
+                            .append(", I can't reach xkcd right now")
+                            .build())
+                    .queue();
+            timer.fail();
+        }
     }
 
     /**
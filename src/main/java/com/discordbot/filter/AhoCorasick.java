@@ -0,0 +1,342 @@
+package com.discordbot.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable Aho-Corasick automaton matching a set of patterns against text in a single pass, ignoring case. The
+ * text is scanned one character at a time and every occurrence of every pattern is reported, including overlapping
+ * ones, in the order they end.
+ * <p>
+ * The trie is stored in breadth first order with the transitions of each state in one compressed sparse row: a state
+ * owns the sorted slice of {@link #edgeChars} and {@link #edgeTargets} between <tt>edgeStart[state]</tt> and
+ * <tt>edgeStart[state + 1]</tt>. The root is visited on every character that starts no pattern, so its ASCII
+ * transitions are also kept in a dense table. Each state has a failure link to the state of its longest proper suffix
+ * in the trie and a dictionary link to the nearest state on that chain that ends a pattern, so reporting matches never
+ * walks states that end nothing.
+ */
+public class AhoCorasick {
+
+    /**
+     * The state the automaton starts in
+     */
+    public static final int ROOT = 0;
+    /**
+     * Returned when there is no transition or pattern
+     */
+    public static final int NONE = -1;
+    private static final int DENSE = 128;
+    private static final int LINEAR_SEARCH = 8;
+
+    private static final char[] ASCII_FOLD = new char[DENSE];
+
+    static {
+        for (char c = 0; c < DENSE; c++) {
+            ASCII_FOLD[c] = Character.toLowerCase(c);
+        }
+    }
+
+    private final String[] patterns;
+    private final int[] rootTargets = new int[DENSE];
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] dictionary;
+
+    /**
+     * Compiles an automaton. Empty patterns are ignored, and a pattern equal to an earlier pattern ignoring case is
+     * reported as the earlier one.
+     *
+     * @param patterns The patterns to match. The index of a pattern in iteration order is its id.
+     */
+    public AhoCorasick(Collection<String> patterns) {
+        this.patterns = patterns.toArray(new String[patterns.size()]);
+
+        // sort the folded patterns so siblings are created in order and lookups only ever check the last child
+        String[] folded = new String[this.patterns.length];
+        int total = 1;
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(this.patterns[i]);
+            total += folded[i].length();
+        }
+        Integer[] sorted = new Integer[folded.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> {
+            int compare = folded[a].compareTo(folded[b]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+
+        // build the trie as linked lists of children
+        int[] firstChild = new int[total];
+        int[] lastChild = new int[total];
+        int[] nextSibling = new int[total];
+        char[] label = new char[total];
+        int[] end = new int[total];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(lastChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        Arrays.fill(end, NONE);
+        int nodes = 1;
+        for (Integer id : sorted) {
+            String pattern = folded[id];
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int child = lastChild[node];
+                if (child == NONE || label[child] != c) {
+                    child = nodes++;
+                    label[child] = c;
+                    if (lastChild[node] == NONE) {
+                        firstChild[node] = child;
+                    } else {
+                        nextSibling[lastChild[node]] = child;
+                    }
+                    lastChild[node] = child;
+                }
+                node = child;
+            }
+            if (end[node] == NONE) {
+                end[node] = id;
+            }
+        }
+
+        // renumber the states breadth first and lay out their transitions
+        int[] queue = new int[nodes];
+        int[] state = new int[nodes];
+        int edges = nodes - 1;
+        edgeStart = new int[nodes + 1];
+        edgeChars = new char[edges];
+        edgeTargets = new int[edges];
+        output = new int[nodes];
+        int head = 0;
+        int tail = 1;
+        int edge = 0;
+        queue[0] = ROOT;
+        state[ROOT] = ROOT;
+        while (head < tail) {
+            int node = queue[head];
+            edgeStart[head] = edge;
+            output[head] = end[node];
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                state[child] = tail;
+                queue[tail++] = child;
+                edgeChars[edge] = label[child];
+                edgeTargets[edge++] = state[child];
+            }
+            head++;
+        }
+        edgeStart[nodes] = edge;
+
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1] && edgeChars[e] < DENSE; e++) {
+            rootTargets[edgeChars[e]] = edgeTargets[e];
+        }
+
+        // compute the failure and dictionary links breadth first, so the links of shallower states are ready
+        fail = new int[nodes];
+        dictionary = new int[nodes];
+        dictionary[ROOT] = NONE;
+        for (int s = 0; s < nodes; s++) {
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int child = edgeTargets[e];
+                fail[child] = s == ROOT ? ROOT : next(fail[s], edgeChars[e]);
+                int link = fail[child];
+                dictionary[child] = output[link] != NONE ? link : dictionary[link];
+            }
+        }
+    }
+
+    /**
+     * Accessor for a pattern.
+     *
+     * @param id The id of the pattern.
+     * @return the pattern as it was given.
+     */
+    public String getPattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * Accessor for the number of patterns.
+     *
+     * @return the number of patterns.
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Accessor for the number of states in the automaton.
+     *
+     * @return the number of states.
+     */
+    public int getStateCount() {
+        return fail.length;
+    }
+
+    /**
+     * Scans text for the patterns.
+     *
+     * @param text     The text to scan.
+     * @param listener The {@link MatchListener} to report each occurrence to.
+     */
+    public void scan(CharSequence text, MatchListener listener) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, fold(text.charAt(i)));
+            for (int s = output[state] != NONE ? state : dictionary[state]; s != NONE; s = dictionary[s]) {
+                int id = output[s];
+                listener.onMatch(i + 1 - patterns[id].length(), i + 1, id);
+            }
+        }
+    }
+
+    /**
+     * Advances the automaton by one character, for callers that feed it characters themselves.
+     *
+     * @param state The current state, {@link #ROOT} at the start of the text.
+     * @param c     The next character of the text.
+     * @return the next state.
+     */
+    public int step(int state, char c) {
+        return next(state, fold(c));
+    }
+
+    /**
+     * Checks if a state has a transition of its own on a character, without falling back along the failure links.
+     *
+     * @param state The state.
+     * @param c     The character.
+     * @return <tt>true</tt> if reading the character extends the match of the state, <tt>false</tt> otherwise.
+     */
+    public boolean hasTransition(int state, char c) {
+        c = fold(c);
+        if (state == ROOT && c < DENSE) {
+            return rootTargets[c] != ROOT;
+        }
+        return transition(state, c) != NONE;
+    }
+
+    /**
+     * Accessor for the pattern that ends exactly at a state, which is the longest pattern ending at the current
+     * position. Shorter patterns ending at the same position are found through {@link #getDictionaryLink(int)}.
+     *
+     * @param state The state.
+     * @return the id of the pattern or {@link #NONE} if no pattern ends at the state.
+     */
+    public int getOutput(int state) {
+        return output[state];
+    }
+
+    /**
+     * Accessor for the dictionary link of a state, the next state on its failure chain that ends a pattern. Starting
+     * from a state and following the dictionary links visits every pattern ending at the current position, longest
+     * first.
+     *
+     * @param state The state.
+     * @return the next state ending a pattern, or {@link #NONE} if there is none.
+     */
+    public int getDictionaryLink(int state) {
+        return dictionary[state];
+    }
+
+    /**
+     * Follows the transition of a state on a character, falling back along the failure links when the state has
+     * none.
+     *
+     * @param state The current state.
+     * @param c     The folded character.
+     * @return the next state.
+     */
+    private int next(int state, char c) {
+        while (state != ROOT) {
+            int target = transition(state, c);
+            if (target != NONE) {
+                return target;
+            }
+            state = fail[state];
+        }
+        if (c < DENSE) {
+            return rootTargets[c];
+        }
+        int target = transition(ROOT, c);
+        return target == NONE ? ROOT : target;
+    }
+
+    /**
+     * Looks up the transition of a state on a character in its row, scanning short rows and bisecting long ones.
+     *
+     * @param state The state.
+     * @param c     The folded character.
+     * @return the target state, or {@link #NONE} if the state has no transition on the character.
+     */
+    private int transition(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        if (high - low < LINEAR_SEARCH) {
+            for (int e = low; e <= high; e++) {
+                if (edgeChars[e] == c) {
+                    return edgeTargets[e];
+                }
+            }
+            return NONE;
+        }
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = edgeChars[middle];
+            if (label < c) {
+                low = middle + 1;
+            } else if (label > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Folds the case of a character the way {@link String#equalsIgnoreCase(String)} compares characters.
+     *
+     * @param c The character to fold.
+     * @return the folded character.
+     */
+    public static char fold(char c) {
+        return c < DENSE ? ASCII_FOLD[c] : Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Folds the case of every character of a {@link String}.
+     *
+     * @param s The {@link String} to fold.
+     * @return the folded {@link String}.
+     */
+    private static String fold(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Receives the occurrences found by {@link #scan(CharSequence, MatchListener)}.
+     */
+    public interface MatchListener {
+        /**
+         * Called for each occurrence of a pattern.
+         *
+         * @param start   The index of the first character of the occurrence.
+         * @param end     The index after the last character of the occurrence.
+         * @param pattern The id of the pattern.
+         */
+        void onMatch(int start, int end, int pattern);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.discordbot.filter;
+
+/**
+ * Maps characters onto the canonical alphabet the profanity filter matches in, so common ways of disguising a word
+ * read the same as the word itself:
+ * <ul>
+ * <li>case is folded,</li>
+ * <li>accents are stripped and fullwidth forms are narrowed,</li>
+ * <li>Cyrillic and Greek look-alikes become the Latin letter they imitate,</li>
+ * <li>leetspeak digits and symbols become letters, and <tt>i</tt>, <tt>l</tt> and <tt>1</tt> share one letter,</li>
+ * <li>zero-width characters and combining marks are skipped entirely,</li>
+ * <li>everything else that is not a letter or digit is a separator.</li>
+ * </ul>
+ * Digits and symbols only stand for letters inside a word that has a real letter as well, so <tt>b4d</tt> reads as
+ * <tt>bad</tt> but a number such as <tt>455</tt> is read literally, see {@link #normalizeLiteral(char)}.
+ * <p>
+ * The mapping is a lookup in a table built once, so normalizing a message costs one array read per character and
+ * allocates nothing.
+ */
+public final class Normalizer {
+
+    /**
+     * Returned for characters that are ignored, as if they were not in the text
+     */
+    public static final char SKIP = '\uFFFF';
+    /**
+     * Returned for characters that separate words
+     */
+    public static final char SEPARATOR = ' ';
+
+    private static final char[] TABLE = new char[Character.MAX_VALUE + 1];
+    private static final char[] LITERAL = new char[Character.MAX_VALUE + 1];
+
+    // the second character of each pair imitates the first
+    private static final String LOOK_ALIKES = ""
+            // leetspeak, and the letters 1 can stand for
+            + "a4a@b8e3g9i1ilo0s5s$t7"
+            // Cyrillic
+            + "a\u0430b\u0432e\u0435e\u0451h\u043Dk\u043Am\u043Co\u043Ep\u0440c\u0441t\u0442y\u0443x\u0445"
+            + "i\u0456j\u0458s\u0455"
+            // Greek, where the capitals of nu and upsilon look like other letters than their lower case
+            + "a\u03B1b\u03B2e\u03B5i\u03B9k\u03BAv\u03BDo\u03BFp\u03C1t\u03C4u\u03C5x\u03C7"
+            + "n\u039Dy\u03A5";
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            TABLE[c] = classify((char) c);
+            LITERAL[c] = TABLE[c];
+        }
+        for (int i = 0; i < LOOK_ALIKES.length(); i += 2) {
+            char letter = TABLE[LOOK_ALIKES.charAt(i)];
+            char lookAlike = LOOK_ALIKES.charAt(i + 1);
+            TABLE[lookAlike] = letter;
+            TABLE[Character.toUpperCase(lookAlike)] = letter;
+            if (Character.isLetter(lookAlike)) {
+                LITERAL[lookAlike] = letter;
+                LITERAL[Character.toUpperCase(lookAlike)] = letter;
+            } else {
+                // a digit or symbol stands for itself in a word without letters, and is part of the word
+                LITERAL[lookAlike] = lookAlike;
+            }
+        }
+        // fullwidth forms read as their ASCII counterparts, look-alikes included
+        for (char c = '\uFF01'; c <= '\uFF5E'; c++) {
+            TABLE[c] = TABLE[c - 0xFEE0];
+            LITERAL[c] = LITERAL[c - 0xFEE0];
+        }
+    }
+
+    private Normalizer() {
+    }
+
+    /**
+     * Normalizes a character.
+     *
+     * @param c The character to normalize.
+     * @return the canonical letter or digit, {@link #SEPARATOR} or {@link #SKIP}.
+     */
+    public static char normalize(char c) {
+        return TABLE[c];
+    }
+
+    /**
+     * Normalizes a character of a word without real letters: like {@link #normalize(char)}, but digits and symbols
+     * that imitate letters stand for themselves. Whether a character is part of a word or not is the same either way.
+     *
+     * @param c The character to normalize.
+     * @return the canonical letter or digit, the symbol itself, {@link #SEPARATOR} or {@link #SKIP}.
+     */
+    public static char normalizeLiteral(char c) {
+        return LITERAL[c];
+    }
+
+    /**
+     * Normalizes a word, leaving out the characters that are skipped. A word without a real letter is normalized
+     * {@link #normalizeLiteral(char) literally}.
+     *
+     * @param s The word to normalize.
+     * @return the normalized word.
+     */
+    public static String normalize(String s) {
+        char[] table = LITERAL;
+        for (int i = 0; i < s.length(); i++) {
+            if (isRealLetter(s.charAt(i))) {
+                table = TABLE;
+                break;
+            }
+        }
+        StringBuilder builder = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = table[s.charAt(i)];
+            if (c != SKIP) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if a character is a real letter, as opposed to a digit or symbol that may imitate one.
+     *
+     * @param c The character, not normalized.
+     * @return <tt>true</tt> if the character is a letter that is part of a word, <tt>false</tt> otherwise.
+     */
+    public static boolean isRealLetter(char c) {
+        return Character.isLetter(c) && isLetter(TABLE[c]);
+    }
+
+    /**
+     * Checks if a normalized character is part of a word.
+     *
+     * @param c The normalized character.
+     * @return <tt>true</tt> if the character is neither {@link #SEPARATOR} nor {@link #SKIP}, <tt>false</tt> otherwise.
+     */
+    public static boolean isLetter(char c) {
+        return c != SEPARATOR && c != SKIP;
+    }
+
+    /**
+     * Computes the entry of a character in the table, before look-alikes are applied.
+     *
+     * @param c The character.
+     * @return the normalized character.
+     */
+    private static char classify(char c) {
+        switch (c) {
+            case '\u00AD': // soft hyphen
+            case '\u180E': // Mongolian vowel separator
+            case '\u200B': // zero width space
+            case '\u200C': // zero width non-joiner
+            case '\u200D': // zero width joiner
+            case '\u2060': // word joiner
+            case '\uFEFF': // zero width no-break space
+                return SKIP;
+        }
+        int type = Character.getType(c);
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.FORMAT) {
+            return SKIP;
+        }
+        if (c == SKIP || !Character.isLetterOrDigit(c)) {
+            return SEPARATOR;
+        }
+
+        char folded = Character.toLowerCase(Character.toUpperCase(c));
+        if (folded >= 0x80 && folded < 0x2000) {
+            // strip accents by keeping the base letter of the canonical decomposition
+            String decomposed = java.text.Normalizer.normalize(String.valueOf(folded), java.text.Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base != folded && Character.isLetterOrDigit(base)) {
+                folded = Character.toLowerCase(base);
+            }
+        }
+        return folded;
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.discordbot.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A rule of the blacklist. Besides plain words, a rule can match part of a word:
+ * <ul>
+ * <li><tt>word</tt> matches the whole word only.</li>
+ * <li><tt>prefix*</tt> matches words starting with <tt>prefix</tt>.</li>
+ * <li><tt>*suffix</tt> matches words ending with <tt>suffix</tt>.</li>
+ * <li><tt>*infix*</tt> matches words containing <tt>infix</tt>.</li>
+ * </ul>
+ * A <tt>?</tt> stands for any one letter from <tt>a</tt> to <tt>z</tt>, up to {@link #MAX_WILDCARDS} times per rule.
+ * The rest of a rule is normalized just like the text it is matched against, so <tt>b4d*</tt> is the same rule as
+ * <tt>bad*</tt>, while a rule without letters such as <tt>8008</tt> only matches words without letters that read
+ * the same.
+ */
+public class Rule {
+
+    /**
+     * Stands for any number of letters at the start or end of a rule
+     */
+    public static final char ANY = '*';
+    /**
+     * Stands for any one letter
+     */
+    public static final char ONE = '?';
+    /**
+     * The most {@link #ONE} wildcards a rule can have, since each one multiplies the patterns it compiles to by 26
+     */
+    public static final int MAX_WILDCARDS = 2;
+
+    private final Kind kind;
+    private final String pattern;
+
+    /**
+     * @param kind    The {@link Kind} of the Rule.
+     * @param pattern The normalized pattern of the Rule, without {@link #ANY}.
+     */
+    private Rule(Kind kind, String pattern) {
+        this.kind = kind;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Parses a rule.
+     *
+     * @param rule The rule.
+     * @return the Rule, or <tt>null</tt> if the rule is not valid.
+     */
+    public static Rule parse(String rule) {
+        boolean leading = rule.length() > 1 && rule.charAt(0) == ANY;
+        boolean trailing = rule.length() > 1 && rule.charAt(rule.length() - 1) == ANY;
+        String core = rule.substring(leading ? 1 : 0, rule.length() - (trailing ? 1 : 0));
+
+        // a wildcard stands for a letter, so only a rule without either is read literally
+        boolean literal = true;
+        for (int i = 0; i < core.length() && literal; i++) {
+            literal = core.charAt(i) != ONE && !Normalizer.isRealLetter(core.charAt(i));
+        }
+
+        StringBuilder pattern = new StringBuilder(core.length());
+        int wildcards = 0;
+        for (int i = 0; i < core.length(); i++) {
+            char c = core.charAt(i);
+            if (c == ONE) {
+                wildcards++;
+            } else {
+                c = literal ? Normalizer.normalizeLiteral(c) : Normalizer.normalize(c);
+                if (c == Normalizer.SKIP) {
+                    continue;
+                }
+                if (c == Normalizer.SEPARATOR) {
+                    // a separator, including a misplaced *, can never be part of a word
+                    return null;
+                }
+            }
+            pattern.append(c);
+        }
+        if (wildcards > MAX_WILDCARDS || pattern.length() == wildcards) {
+            return null;
+        }
+
+        Kind kind = leading ? (trailing ? Kind.INFIX : Kind.SUFFIX) : (trailing ? Kind.PREFIX : Kind.WORD);
+        return new Rule(kind, pattern.toString());
+    }
+
+    /**
+     * Checks if a rule is valid.
+     *
+     * @param rule The rule.
+     * @return <tt>true</tt> if the rule is valid, <tt>false</tt> otherwise.
+     */
+    public static boolean isValid(String rule) {
+        return parse(rule) != null;
+    }
+
+    /**
+     * Accessor for the {@link Kind} of the Rule.
+     *
+     * @return the {@link Kind}.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Expands the Rule into the plain patterns it matches, one for each way of filling in its {@link #ONE} wildcards.
+     *
+     * @return the normalized patterns.
+     */
+    public List<String> expand() {
+        if (pattern.indexOf(ONE) < 0) {
+            return Collections.singletonList(pattern);
+        }
+        List<String> patterns = new ArrayList<>();
+        expand(pattern.toCharArray(), 0, patterns);
+        return patterns;
+    }
+
+    /**
+     * Fills in the {@link #ONE} wildcards from an index on.
+     *
+     * @param pattern  The pattern, with the wildcards before the index filled in.
+     * @param from     The index to continue from.
+     * @param patterns The {@link List} to add the patterns to.
+     */
+    private static void expand(char[] pattern, int from, List<String> patterns) {
+        for (int i = from; i < pattern.length; i++) {
+            if (pattern[i] == ONE) {
+                for (char c = 'a'; c <= 'z'; c++) {
+                    pattern[i] = c;
+                    expand(pattern, i + 1, patterns);
+                }
+                pattern[i] = ONE;
+                return;
+            }
+        }
+        patterns.add(new String(pattern));
+    }
+
+    /**
+     * The part of a word a {@link Rule} has to match.
+     */
+    public enum Kind {
+        /**
+         * The whole word
+         */
+        WORD,
+        /**
+         * The start of the word
+         */
+        PREFIX,
+        /**
+         * The end of the word
+         */
+        SUFFIX,
+        /**
+         * Any part of the word
+         */
+        INFIX
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.discordbot.filter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small, bounded, direct mapped cache of the matches found in recent messages, keyed by message id. Every listener
+ * that filters a message sees the same
+ * {@link net.dv8tion.jda.core.events.message.MessageReceivedEvent}, so the first one to filter it stores the verdict
+ * and the rest reuse it. Each verdict is stored with the version of the blacklist it was computed with, and is ignored
+ * once the blacklist changes. A new message simply replaces whatever occupied its slot, so the cache never grows and
+ * needs no eviction.
+ * <p>
+ * The slots are allocated up front and overwritten in place, so storing a verdict allocates nothing. Each slot has a
+ * stamp that is odd while the slot is being written: a reader that sees the stamp change while reading the slot
+ * ignores what it read, and a writer that finds the slot being written leaves it to the other writer.
+ *
+ * @param <T> The type of the matches.
+ */
+public class VerdictCache<T> {
+
+    /**
+     * The default number of slots
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Slot<T>[] slots;
+    private final int mask;
+
+    /**
+     * Creates a VerdictCache with {@link #DEFAULT_CAPACITY} slots.
+     */
+    public VerdictCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of slots, rounded up to a power of two.
+     */
+    public VerdictCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Slot<T>[] slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot<>();
+        }
+        this.slots = slots;
+        mask = size - 1;
+    }
+
+    /**
+     * Looks up the verdict for a message.
+     *
+     * @param id      The id of the message.
+     * @param version The current version of the blacklist.
+     * @return the matches found in the message, or <tt>null</tt> if there is no verdict for the message and version.
+     */
+    public List<T> get(String id, long version) {
+        Slot<T> slot = slots[index(id)];
+        int stamp = slot.stamp.get();
+        if ((stamp & 1) != 0) {
+            return null;
+        }
+        String slotId = slot.id;
+        long slotVersion = slot.version;
+        List<T> matches = slot.matches;
+        if (slot.stamp.get() != stamp || slotVersion != version || !id.equals(slotId)) {
+            return null;
+        }
+        return matches;
+    }
+
+    /**
+     * Stores the verdict for a message, replacing the verdict in its slot.
+     *
+     * @param id      The id of the message.
+     * @param version The version of the blacklist the verdict was computed with.
+     * @param matches The matches found in the message. The {@link List} must not be modified afterwards.
+     */
+    public void put(String id, long version, List<T> matches) {
+        Slot<T> slot = slots[index(id)];
+        int stamp = slot.stamp.get();
+        if ((stamp & 1) != 0 || !slot.stamp.compareAndSet(stamp, stamp + 1)) {
+            // another message is being stored in the slot, which replaces this verdict anyway
+            return;
+        }
+        slot.id = id;
+        slot.version = version;
+        slot.matches = matches;
+        slot.stamp.set(stamp + 2);
+    }
+
+    /**
+     * Finds the slot of a message id.
+     *
+     * @param id The id of the message.
+     * @return the index of the slot.
+     */
+    private int index(String id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * A slot holding the matches found in one message by one version of the blacklist. The fields are volatile, so
+     * reading them between two equal reads of the stamp sees them as one writer left them.
+     *
+     * @param <T> The type of the matches.
+     */
+    private static class Slot<T> {
+
+        private final AtomicInteger stamp = new AtomicInteger();
+        private volatile String id;
+        private volatile long version;
+        private volatile List<T> matches;
+
+    }
+
+}
@@ -0,0 +1,333 @@
+package com.discordbot.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Finds words matching the {@link Rule}s of a blacklist in text, seeing through the usual ways of disguising them. The
+ * text is read once, one character at a time: each character goes through the {@link Normalizer} and straight into a
+ * single {@link AhoCorasick} automaton of the patterns of every {@link Rule}, so no normalized copy of the text is made
+ * and the time taken grows with the length of the text, not with the number of {@link Rule}s. On top of the
+ * {@link Normalizer}, the stream is cleaned up in two ways:
+ * <ul>
+ * <li>A repeated letter is absorbed when the automaton can't take it, so <tt>baaaad</tt> reads as <tt>bad</tt> while
+ * words that do have double letters still match.</li>
+ * <li>Separators between single letters are dropped, so <tt>b.a.d</tt> and <tt>b a d</tt> read as <tt>bad</tt>.
+ * Separators next to longer words still separate them, so ordinary sentences are not run together.</li>
+ * </ul>
+ * Digits and symbols only stand for letters in a word with a real letter in it, which is looked ahead for where the
+ * word starts. A number such as <tt>455</tt> is read {@link Normalizer#normalizeLiteral(char) literally}, so it never
+ * matches a {@link Rule} spelled with letters.
+ * Each pattern remembers the {@link Rule}s it came from and their {@link Rule.Kind}, which decides where in the word
+ * the pattern has to start and end. Matches span the whole word, are reported with their position in the original
+ * text and name the {@link Rule} that matched. A WordMatcher is immutable and can be shared between threads.
+ */
+public class WordMatcher {
+
+    private static final int KINDS = Rule.Kind.values().length;
+    private static final int[] NO_RULES = new int[0];
+
+    private final String[] words;
+    private final int[] lengths;
+    private final int[] kinds;
+    private final int[][] rules;
+    private final boolean wholeWordOnly;
+    private final AhoCorasick automaton;
+
+    /**
+     * Compiles a WordMatcher. Rules that are not valid, including words that contain separators after normalization
+     * and so can never be part of a word, are left out.
+     *
+     * @param words The {@link Rule}s to find. The index of a rule in iteration order is its id.
+     */
+    public WordMatcher(Collection<String> words) {
+        this.words = words.toArray(new String[words.size()]);
+
+        // rules sharing a pattern share its state in the automaton
+        Map<String, Integer> patternIds = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        List<List<Integer>> patternRules = new ArrayList<>();
+        boolean wholeWordOnly = true;
+        for (int id = 0; id < this.words.length; id++) {
+            Rule rule = Rule.parse(this.words[id]);
+            if (rule == null) {
+                continue;
+            }
+            wholeWordOnly &= rule.getKind() == Rule.Kind.WORD;
+            for (String pattern : rule.expand()) {
+                Integer patternId = patternIds.get(pattern);
+                if (patternId == null) {
+                    patternId = patterns.size();
+                    patternIds.put(pattern, patternId);
+                    patterns.add(pattern);
+                    for (int kind = 0; kind < KINDS; kind++) {
+                        patternRules.add(null);
+                    }
+                }
+                int slot = patternId * KINDS + rule.getKind().ordinal();
+                if (patternRules.get(slot) == null) {
+                    patternRules.set(slot, new ArrayList<>(1));
+                }
+                List<Integer> slotRules = patternRules.get(slot);
+                if (slotRules.isEmpty() || slotRules.get(slotRules.size() - 1) != id) {
+                    slotRules.add(id);
+                }
+            }
+        }
+
+        lengths = new int[patterns.size()];
+        kinds = new int[patterns.size()];
+        rules = new int[patternRules.size()][];
+        for (int slot = 0; slot < rules.length; slot++) {
+            List<Integer> slotRules = patternRules.get(slot);
+            if (slotRules == null) {
+                rules[slot] = NO_RULES;
+                continue;
+            }
+            rules[slot] = new int[slotRules.size()];
+            for (int i = 0; i < rules[slot].length; i++) {
+                rules[slot][i] = slotRules.get(i);
+            }
+            kinds[slot / KINDS] |= 1 << (slot % KINDS);
+        }
+        for (int patternId = 0; patternId < lengths.length; patternId++) {
+            lengths[patternId] = patterns.get(patternId).length();
+        }
+        this.wholeWordOnly = wholeWordOnly;
+        automaton = new AhoCorasick(patterns);
+    }
+
+    /**
+     * Accessor for a word.
+     *
+     * @param id The id of the word.
+     * @return the word as it was given.
+     */
+    public String getWord(int id) {
+        return words[id];
+    }
+
+    /**
+     * Accessor for the number of words.
+     *
+     * @return the number of words.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Checks if every {@link Rule} matches whole words only, with no {@link Rule#ANY} wildcard.
+     *
+     * @return <tt>true</tt> if every {@link Rule} is of {@link Rule.Kind#WORD}, <tt>false</tt> otherwise.
+     */
+    public boolean isWholeWordOnly() {
+        return wholeWordOnly;
+    }
+
+    /**
+     * Finds the words matching any {@link Rule} in a text. Each word is reported once its end is known, in the order
+     * they appear.
+     *
+     * @param text     The text to search.
+     * @param listener The {@link AhoCorasick.MatchListener} to report each word to, with the id of the {@link Rule}.
+     */
+    public void find(CharSequence text, AhoCorasick.MatchListener listener) {
+        find(text, id -> true, listener);
+    }
+
+    /**
+     * Finds the words matching a subset of the {@link Rule}s in a text. Each word is reported once its end is known, in
+     * the order they appear, with the first {@link Rule} that matched it.
+     *
+     * @param text     The text to search.
+     * @param accept   Tests if a {@link Rule} is in the subset by its id.
+     * @param listener The {@link AhoCorasick.MatchListener} to report each word to, with the id of the {@link Rule}.
+     */
+    public void find(CharSequence text, IntPredicate accept, AhoCorasick.MatchListener listener) {
+        int length = text.length();
+        int state = AhoCorasick.ROOT;
+        char last = Normalizer.SEPARATOR;
+        int wordStart = 0;
+        int wordLength = 0;
+        int segmentLength = 0;
+        int matchEnd = 0;
+        // a prefix or infix rule holds whatever follows, a word or suffix rule only if the word ends right after it
+        int held = AhoCorasick.NONE;
+        int pending = AhoCorasick.NONE;
+        boolean literal = !hasRealLetter(text, 0);
+
+        for (int i = 0; i < length; i++) {
+            char c = Normalizer.normalize(text.charAt(i));
+            if (c == Normalizer.SKIP) {
+                continue;
+            }
+
+            if (c == Normalizer.SEPARATOR) {
+                int next = skipSeparators(text, i);
+                if (segmentLength == 1 && isSingleLetter(text, next)) {
+                    // join the letters on either side of the separators
+                    segmentLength = 0;
+                    i = next - 1;
+                    continue;
+                }
+                int match = held != AhoCorasick.NONE ? held : pending;
+                if (match != AhoCorasick.NONE) {
+                    listener.onMatch(wordStart, matchEnd, match);
+                }
+                state = AhoCorasick.ROOT;
+                last = Normalizer.SEPARATOR;
+                wordLength = 0;
+                segmentLength = 0;
+                held = AhoCorasick.NONE;
+                pending = AhoCorasick.NONE;
+                literal = !hasRealLetter(text, next);
+                i = next - 1;
+                continue;
+            }
+
+            if (literal) {
+                c = Normalizer.normalizeLiteral(text.charAt(i));
+            }
+            segmentLength++;
+            matchEnd = i + 1;
+            if (c == last && !automaton.hasTransition(state, c)) {
+                // absorb the repeated letter, stretching the match over it
+                continue;
+            }
+
+            if (wordLength == 0) {
+                wordStart = i;
+            }
+            state = automaton.step(state, c);
+            last = c;
+            wordLength++;
+            if (held != AhoCorasick.NONE) {
+                continue;
+            }
+
+            // visit every pattern ending here, longest first
+            pending = AhoCorasick.NONE;
+            for (int s = state; s != AhoCorasick.NONE; s = automaton.getDictionaryLink(s)) {
+                int pattern = automaton.getOutput(s);
+                if (pattern == AhoCorasick.NONE) {
+                    continue;
+                }
+                // only a pattern as long as the word so far starts where the word starts
+                boolean fromStart = lengths[pattern] == wordLength;
+                if (fromStart && (held = first(pattern, Rule.Kind.PREFIX, accept)) != AhoCorasick.NONE) {
+                    break;
+                }
+                if ((held = first(pattern, Rule.Kind.INFIX, accept)) != AhoCorasick.NONE) {
+                    break;
+                }
+                if (pending == AhoCorasick.NONE && fromStart) {
+                    pending = first(pattern, Rule.Kind.WORD, accept);
+                }
+                if (pending == AhoCorasick.NONE) {
+                    pending = first(pattern, Rule.Kind.SUFFIX, accept);
+                }
+            }
+        }
+
+        int match = held != AhoCorasick.NONE ? held : pending;
+        if (match != AhoCorasick.NONE) {
+            listener.onMatch(wordStart, matchEnd, match);
+        }
+    }
+
+    /**
+     * Finds the first accepted {@link Rule} of a {@link Rule.Kind} that a pattern came from.
+     *
+     * @param pattern The id of the pattern.
+     * @param kind    The {@link Rule.Kind}.
+     * @param accept  Tests if a {@link Rule} is accepted by its id.
+     * @return the id of the {@link Rule}, or {@link AhoCorasick#NONE} if there is none.
+     */
+    private int first(int pattern, Rule.Kind kind, IntPredicate accept) {
+        if ((kinds[pattern] & (1 << kind.ordinal())) == 0) {
+            return AhoCorasick.NONE;
+        }
+        for (int id : rules[pattern * KINDS + kind.ordinal()]) {
+            if (accept.test(id)) {
+                return id;
+            }
+        }
+        return AhoCorasick.NONE;
+    }
+
+    /**
+     * Checks if the word starting at an index has a real letter in it. The word ends where {@link #find(CharSequence,
+     * IntPredicate, AhoCorasick.MatchListener)} ends it, so single letters joined across separators are one word.
+     *
+     * @param text  The text.
+     * @param start The index of the first character of the word, or of separators before it.
+     * @return <tt>true</tt> if the word has a {@link Normalizer#isRealLetter(char) real letter}, <tt>false</tt>
+     * otherwise.
+     */
+    static boolean hasRealLetter(CharSequence text, int start) {
+        int segmentLength = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = Normalizer.normalize(text.charAt(i));
+            if (c == Normalizer.SKIP) {
+                continue;
+            }
+            if (c == Normalizer.SEPARATOR) {
+                int next = skipSeparators(text, i);
+                if (segmentLength > 1 || segmentLength == 1 && !isSingleLetter(text, next)) {
+                    return false;
+                }
+                segmentLength = 0;
+                i = next - 1;
+                continue;
+            }
+            if (Normalizer.isRealLetter(text.charAt(i))) {
+                return true;
+            }
+            segmentLength++;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the end of a run of separators and skipped characters.
+     *
+     * @param text  The text.
+     * @param start The index of the first separator.
+     * @return the index of the first letter after the run, or the length of the text.
+     */
+    static int skipSeparators(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && !Normalizer.isLetter(Normalizer.normalize(text.charAt(i)))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Checks if a single letter stands alone at an index, followed by a separator or the end of the text.
+     *
+     * @param text  The text.
+     * @param index The index of the letter.
+     * @return <tt>true</tt> if there is a letter at the index and no letter directly after it, <tt>false</tt>
+     * otherwise.
+     */
+    static boolean isSingleLetter(CharSequence text, int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+        char letter = Normalizer.normalize(text.charAt(index));
+        for (int i = index + 1; i < text.length(); i++) {
+            char c = Normalizer.normalize(text.charAt(i));
+            if (c != Normalizer.SKIP) {
+                return c == Normalizer.SEPARATOR;
+            }
+        }
+        return letter != Normalizer.SKIP;
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.discordbot.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A Bloom filter over the words of a {@link WordMatcher} whose {@link Rule}s all match whole words, used to wave clean
+ * text through without running the {@link AhoCorasick} automaton. The text is split into words exactly as the {@link
+ * WordMatcher} splits it, and each word is hashed one character at a time, so no copy of the text is made.
+ * <p>
+ * A word is hashed folded, normalized and with every run of a repeated letter collapsed to one letter, reading a word
+ * without real letters literally like the {@link WordMatcher} does. The {@link WordMatcher} only ever absorbs repeated
+ * letters, so every word it can match hashes to the same key as the word it matches, and the WordPrefilter never
+ * rejects text the {@link WordMatcher} would match. Text it lets through may still be clean; at most about
+ * {@link #FALSE_POSITIVE_RATE} of clean words pass. A WordPrefilter is immutable and can be shared between threads.
+ */
+public class WordPrefilter {
+
+    /**
+     * The number of bits per word
+     */
+    public static final int BITS_PER_WORD = 10;
+    /**
+     * The number of bits checked per word
+     */
+    public static final int HASHES = 7;
+    /**
+     * The expected rate of clean words passing the WordPrefilter with {@link #BITS_PER_WORD} and {@link #HASHES}. The
+     * bits are rounded up to a power of two, so the actual rate is lower for most sizes.
+     */
+    public static final double FALSE_POSITIVE_RATE = 0.008;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] bits;
+    private final int mask;
+
+    /**
+     * Builds a WordPrefilter. Rules that are not valid are left out, as the {@link WordMatcher} leaves them out, and a
+     * {@link Rule#ONE} wildcard adds every word it can stand for.
+     *
+     * @param words The {@link Rule}s of the words to let through.
+     * @throws IllegalArgumentException if a {@link Rule} matches part of a word, since the words it matches are not
+     *                                  known up front.
+     */
+    public WordPrefilter(Collection<String> words) {
+        List<String> patterns = new ArrayList<>(words.size());
+        for (String word : words) {
+            Rule rule = Rule.parse(word);
+            if (rule == null) {
+                continue;
+            }
+            if (rule.getKind() != Rule.Kind.WORD) {
+                throw new IllegalArgumentException("Rule does not match whole words: " + word);
+            }
+            patterns.addAll(rule.expand());
+        }
+
+        int size = Math.max(64, Integer.highestOneBit(Math.max(1, patterns.size() * BITS_PER_WORD) - 1) << 1);
+        bits = new long[size >>> 6];
+        mask = size - 1;
+
+        for (String pattern : patterns) {
+            long hash = FNV_OFFSET;
+            char last = Normalizer.SEPARATOR;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = AhoCorasick.fold(pattern.charAt(i));
+                if (c != last) {
+                    hash = (hash ^ c) * FNV_PRIME;
+                    last = c;
+                }
+            }
+            add(hash);
+        }
+    }
+
+    /**
+     * Checks if a text might contain one of the words.
+     *
+     * @param text The text to check.
+     * @return <tt>false</tt> if the text contains none of the words, <tt>true</tt> if it might.
+     */
+    public boolean mightMatch(CharSequence text) {
+        int length = text.length();
+        long hash = FNV_OFFSET;
+        char last = Normalizer.SEPARATOR;
+        int wordLength = 0;
+        int segmentLength = 0;
+        boolean literal = !WordMatcher.hasRealLetter(text, 0);
+
+        for (int i = 0; i < length; i++) {
+            char c = Normalizer.normalize(text.charAt(i));
+            if (c == Normalizer.SKIP) {
+                continue;
+            }
+
+            if (c == Normalizer.SEPARATOR) {
+                int next = WordMatcher.skipSeparators(text, i);
+                if (segmentLength == 1 && WordMatcher.isSingleLetter(text, next)) {
+                    // the WordMatcher joins the letters on either side of the separators
+                    segmentLength = 0;
+                    i = next - 1;
+                    continue;
+                }
+                if (wordLength > 0 && contains(hash)) {
+                    return true;
+                }
+                hash = FNV_OFFSET;
+                last = Normalizer.SEPARATOR;
+                wordLength = 0;
+                segmentLength = 0;
+                literal = !WordMatcher.hasRealLetter(text, next);
+                i = next - 1;
+                continue;
+            }
+
+            if (literal) {
+                c = Normalizer.normalizeLiteral(text.charAt(i));
+            }
+            segmentLength++;
+            c = AhoCorasick.fold(c);
+            if (c != last) {
+                hash = (hash ^ c) * FNV_PRIME;
+                last = c;
+                wordLength++;
+            }
+        }
+
+        return wordLength > 0 && contains(hash);
+    }
+
+    /**
+     * Sets the bits of a word.
+     *
+     * @param hash The hash of the word.
+     */
+    private void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks the bits of a word.
+     *
+     * @param hash The hash of the word.
+     * @return <tt>true</tt> if every bit of the word is set, <tt>false</tt> otherwise.
+     */
+    private boolean contains(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.discordbot.gui;
 
 import com.discordbot.DiscordBot;
+import com.discordbot.command.CommandMetrics;
 import com.discordbot.util.SettingHandler;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
@@ -9,8 +13,15 @@ import javafx.beans.value.ObservableValue;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.util.Duration;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.events.*;
 import net.dv8tion.jda.core.hooks.ListenerAdapter;
@@ -21,14 +32,19 @@ import java.net.URL;
 import java.security.InvalidKeyException;
 
 /**
- * A JavaFX {@link javafx.scene.layout.Pane Pane} used to start and pause the {@link DiscordBot DiscordBot).
+ * A JavaFX {@link javafx.scene.layout.Pane Pane} used to start and pause the {@link DiscordBot DiscordBot) and to watch
+ * the {@link CommandMetrics} of each command.
  */
 public class ControlPane extends HBox {
 
     private static final SimpleLog LOG = SimpleLog.getLog("StageHandler");
 
+    private static final Duration METRICS_REFRESH = Duration.seconds(1);
+
     private Pane statusPane = new Pane();
     private Button startStopButton = new Button();
+    private TableView<CommandMetrics.Snapshot> metricsTable = new TableView<>();
+    private Timeline metricsTimeline = new Timeline(new KeyFrame(METRICS_REFRESH, event -> refreshMetrics()));
 
     /**
      * Default constructor builds the ControlPane.
@@ -76,13 +92,31 @@ public class ControlPane extends HBox {
                     }
                 }).start());
 
+        // set up metrics table
+        metricsTable.setPlaceholder(new Label("No commands run yet"));
+        metricsTable.setPrefHeight(150);
+        metricsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        metricsTable.getColumns().add(column("Command", "tag"));
+        metricsTable.getColumns().add(column("Runs", "invocations"));
+        metricsTable.getColumns().add(column("Errors", "errors"));
+        metricsTable.getColumns().add(millisColumn("Mean (ms)", "meanMillis"));
+        metricsTable.getColumns().add(millisColumn("p50 (ms)", "p50Millis"));
+        metricsTable.getColumns().add(millisColumn("p99 (ms)", "p99Millis"));
+        metricsTable.getColumns().add(millisColumn("Max (ms)", "maxMillis"));
+        metricsTimeline.setCycleCount(Animation.INDEFINITE);
+        HBox.setHgrow(metricsTable, Priority.ALWAYS);
+
         // set up layout
         setStyle("-fx-background-color:transparent");
         Pane divider = new Pane();
         divider.setPrefWidth(10);
+        Pane metricsDivider = new Pane();
+        metricsDivider.setPrefWidth(10);
         getChildren().add(statusPane);
         getChildren().add(divider);
         getChildren().add(startStopButton);
+        getChildren().add(metricsDivider);
+        getChildren().add(metricsTable);
 
         // set up status listener
         ListenerAdapter listener = new ListenerAdapter() {
@@ -94,6 +128,7 @@ public class ControlPane extends HBox {
         };
         if (isVisible()) {
             DiscordBot.getInstance().addEventListener(listener);
+            metricsTimeline.play();
         }
 
         // enable/disable the status listener when the control panel is/isn't visible
@@ -106,10 +141,52 @@ public class ControlPane extends HBox {
                     updateColor(PaneColor.RED);
                 }
                 startStopButton.setText(DiscordBot.getInstance().isRunning() ? "Stop" : "Start");
+                metricsTimeline.play();
             } else if (!newValue && oldValue) {
                 DiscordBot.getInstance().removeEventListener(listener);
+                metricsTimeline.stop();
+            }
+        });
+    }
+
+    /**
+     * Replaces the rows of the metrics table with a new snapshot of the {@link CommandMetrics}.
+     */
+    private void refreshMetrics() {
+        metricsTable.getItems().setAll(DiscordBot.getInstance().getCommandHandler().getMetrics().getCommands());
+    }
+
+    /**
+     * Creates a column of the metrics table.
+     *
+     * @param title    The title of the column.
+     * @param property The property of {@link CommandMetrics.Snapshot} shown in the column.
+     * @param <T>      The type of the property.
+     * @return the {@link TableColumn}.
+     */
+    private static <T> TableColumn<CommandMetrics.Snapshot, T> column(String title, String property) {
+        TableColumn<CommandMetrics.Snapshot, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(new PropertyValueFactory<>(property));
+        return column;
+    }
+
+    /**
+     * Creates a column of the metrics table showing milliseconds to one decimal place.
+     *
+     * @param title    The title of the column.
+     * @param property The property of {@link CommandMetrics.Snapshot} shown in the column.
+     * @return the {@link TableColumn}.
+     */
+    private static TableColumn<CommandMetrics.Snapshot, Double> millisColumn(String title, String property) {
+        TableColumn<CommandMetrics.Snapshot, Double> column = column(title, property);
+        column.setCellFactory(tableColumn -> new TableCell<CommandMetrics.Snapshot, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.1f", item));
             }
         });
+        return column;
     }
 
     /**
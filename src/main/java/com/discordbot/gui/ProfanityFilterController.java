@@ -1,5 +1,6 @@
 package com.discordbot.gui;
 
+import com.discordbot.filter.Rule;
 import com.discordbot.model.ProfanityFilter;
 import com.discordbot.util.ProfanityFilterListener;
 import com.discordbot.util.SettingHandler;
@@ -94,11 +95,12 @@ public class ProfanityFilterController implements FXMLController {
     }
 
     /**
-     * Adds the word in {@link #addField} to the {@link ProfanityFilter}.
+     * Adds the word or {@link Rule} in {@link #addField} to the {@link ProfanityFilter}.
      */
     public void handleAddAction() {
         String word = addField.getText();
-        if (!word.isEmpty()) {
+        // an invalid rule is left in the field to be corrected
+        if (Rule.isValid(word)) {
             filter.add(word);
             addField.setText("");
             updateRemoveComboBox();
@@ -2,7 +2,6 @@ package com.discordbot.gui;
 
 import com.discordbot.DiscordBot;
 import com.discordbot.command.CommandHandler;
-import com.discordbot.command.CommandReceivedEvent;
 import com.discordbot.command.StrawPollCommand;
 import com.discordbot.model.StrawPoll;
 import javafx.application.Platform;
@@ -16,6 +15,7 @@ import javafx.scene.control.TextInputControl;
 import javafx.scene.layout.GridPane;
 import net.dv8tion.jda.core.entities.Channel;
 import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.TextChannel;
 
 import java.net.URL;
 import java.text.DecimalFormat;
@@ -213,9 +213,11 @@ public class StrawPollController implements FXMLController, DiscordBot.ChangeLis
 
             // post the poll
             if (DiscordBot.getInstance().isRunning()) {
-                DiscordBot.getInstance().getJDA().getTextChannelById(channelComboBox.getValue().getId())
-                        .sendMessage("Poll starting (" + CommandReceivedEvent.PREFIX + tagField.getText() + "):\n"
-                                + poll.toString() + "\nYou have " + timeField.getText() + " to respond.").queue();
+                TextChannel channel = DiscordBot.getInstance().getJDA()
+                        .getTextChannelById(channelComboBox.getValue().getId());
+                channel.sendMessage("Poll starting (" + commandHandler.getPrefixes().getPrefix(channel.getGuild())
+                        + tagField.getText() + "):\n"
+                        + poll.toString() + "\nYou have " + timeField.getText() + " to respond.").queue();
             }
 
             // start the timer
@@ -242,9 +244,12 @@ public class StrawPollController implements FXMLController, DiscordBot.ChangeLis
                                 } else {
                                     // post the poll
                                     if (DiscordBot.getInstance().isRunning()) {
-                                        DiscordBot.getInstance().getJDA().getTextChannelById(channelComboBox.getValue().getId())
-                                                .sendMessage("Poll ended (" + CommandReceivedEvent.PREFIX + tagField.getText() + "):\n"
-                                                        + poll.resultsAsString()).queue();
+                                        TextChannel channel = DiscordBot.getInstance().getJDA()
+                                                .getTextChannelById(channelComboBox.getValue().getId());
+                                        channel.sendMessage("Poll ended ("
+                                                + commandHandler.getPrefixes().getPrefix(channel.getGuild())
+                                                + tagField.getText() + "):\n"
+                                                + poll.resultsAsString()).queue();
                                     }
 
                                     //  stop the timer
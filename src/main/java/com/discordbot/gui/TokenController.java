@@ -273,21 +273,16 @@ public class TokenController implements FXMLController {
      */
     private void saveTokens() {
         List<Token> tokens = getTokens();
+        List<Token> saved = database.selectAll();
 
         // delete removed tokens
-        database.selectAll()
-                .stream()
+        database.delete(saved.stream()
                 .filter(t1 -> tokens.stream().noneMatch(t2 -> t2.equals(t1)))
-                .forEach(t -> database.delete(t.getToken()));
+                .map(Token::getToken)
+                .toArray(String[]::new));
 
-        // insert or update remaining tokens
-        tokens.forEach(token -> {
-            if (database.exists(token.getToken())) {
-                database.update(token);
-            } else {
-                database.insert(token);
-            }
-        });
+        // insert or update remaining tokens in one batch
+        database.upsert(tokens.toArray(new Token[tokens.size()]));
 
         // save selected token setting
         String token = (selectedRow != -1 && tokenFields.size() > selectedRow)
@@ -1,32 +1,157 @@
 package com.discordbot.model;
 
+import com.discordbot.filter.AhoCorasick;
+import com.discordbot.filter.Rule;
+import com.discordbot.filter.WordMatcher;
+import com.discordbot.filter.WordPrefilter;
+import com.discordbot.filter.VerdictCache;
+
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
 
 /**
- * A profanity filter containing a blacklist of words to filter out of messages.
+ * A profanity filter containing a blacklist of words to filter out of messages. The blacklist is compiled into a {@link
+ * WordMatcher} whenever it changes, so a message is scanned once no matter how long the blacklist is, and disguised
+ * words such as <tt>b4d</tt>, <tt>baaad</tt> or <tt>b.a.d</tt> are caught as well. Each entry of the blacklist is a
+ * {@link Rule}, so besides plain words it can match the start, end or middle of words and stand for any letter, and
+ * every match names the {@link Rule} behind it. Verdicts for messages are kept in a {@link VerdictCache}, so every
+ * listener filtering the same message shares one scan. Filtering a clean message allocates nothing, whether it goes
+ * through the {@link VerdictCache} or not.
+ * <p>
+ * Filtering never locks or copies: the compiled blacklist is an immutable {@link Snapshot} published through an
+ * {@link AtomicReference}. Writers update their own copy of the blacklist under a lock, compile it and swap the new
+ * {@link Snapshot} in. A small blacklist is compiled by the writer, so changes apply as soon as {@link #add(String...)}
+ * or {@link #remove(String...)} returns. A large blacklist takes long enough to compile that it would stall the
+ * JavaFX thread, so it is compiled in the background while messages keep being filtered with the previous
+ * {@link Snapshot}; a change made while a compilation is pending supersedes it.
+ * <p>
+ * Each {@link net.dv8tion.jda.core.entities.Guild} can blacklist words of its own on top of the global blacklist.
+ * Every word is interned once in a shared dictionary, and a blacklist is a bitset over the ids of its words, so memory
+ * grows with the number of distinct words rather than with the number of guilds. The dictionary counts the blacklists
+ * using each word, and once no blacklist uses a word anymore it is dropped and the ids are compacted. All blacklists
+ * share a single {@link WordMatcher} of the dictionary, and a match only counts if its word is set in the global
+ * bitset or in the bitset of the guild the message came from. The bitsets are never changed once made: a change to
+ * the blacklist of one guild makes a new bitset for that guild and shares the rest, and reuses the compiled
+ * {@link WordMatcher} unless it changes which words are used at all.
+ * <p>
+ * Most messages are clean, so unless it is disabled with {@link #setPrefilterEnabled(boolean)}, each {@link Snapshot}
+ * of a dictionary of whole word {@link Rule}s also has a {@link WordPrefilter} that lets clean messages skip the
+ * {@link WordMatcher}.
  */
 public class ProfanityFilter {
 
-    private Set<String> blacklist = new LowerCaseTreeSet();
-    private ChangeListener listener = null;
+    /**
+     * The number of words from which the blacklist is compiled in the background
+     */
+    public static final int BACKGROUND_COMPILE_SIZE = 5000;
+
+    private final Set<String> blacklist = new LowerCaseTreeSet();
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private int[] references = new int[0];
+    private int unused = 0;
+    private long dictionaryRevision = 0;
+    private String[] compiledWords = new String[0];
+    private long compiledWordsRevision = 0;
+    private long[] global = new long[0];
+    private final Map<String, long[]> guilds = new HashMap<>();
+    private boolean prefilter = true;
+    private final VerdictCache<Match> verdicts = new VerdictCache<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(
+            new WordMatcher(Collections.emptyList()), null, true, 0, new long[0], Collections.emptyMap(), 0));
+    private final ExecutorService compiler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ProfanityFilter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ThreadLocal<Collector> COLLECTORS = ThreadLocal.withInitial(Collector::new);
+
+    private volatile List<String> words = Collections.emptyList();
+    private volatile long revision = 0;
+    private volatile ChangeListener listener = null;
 
     /**
-     * Filters a {@link String} for words in the blacklist.
+     * Filters a {@link String} for words in the global blacklist. Each entry of the blacklist is a {@link Rule}
+     * matching whole words, or their start, end or middle, ignoring case and the disguises undone by the {@link
+     * WordMatcher}.
      *
      * @param s The {@link String} to filter.
-     * @return a {@link List<String>} of words from the blacklist found in the provided {@link String}. Returns an empty
-     * {@link List<String>} if no words were found.
-     */
-    public List<String> filter(String s) {
-        List<String> badWords = new ArrayList<>();
-        for (String word : s.split("\\W+")) {
-            for (String wordBL : blacklist) {
-                if (wordBL.equalsIgnoreCase(word)) {
-                    badWords.add(word.toLowerCase());
-                }
-            }
+     * @return a {@link List} of {@link Match}es for the words found in the provided {@link String}. Returns an empty
+     * {@link List} if no words were found.
+     */
+    public List<Match> filter(String s) {
+        return filter(snapshot.get(), null, s);
+    }
+
+    /**
+     * Filters a message for words in the global blacklist and the blacklist of its
+     * {@link net.dv8tion.jda.core.entities.Guild}, reusing the verdict if the message has already been filtered since
+     * a blacklist last changed.
+     *
+     * @param guildId The id of the {@link net.dv8tion.jda.core.entities.Guild} the message was received in, or
+     *                <tt>null</tt> if it was not received in a guild.
+     * @param id      The id of the message.
+     * @param content The content of the message.
+     * @return an unmodifiable {@link List} of {@link Match}es for the words found in the message. Returns an empty
+     * {@link List} if no words were found.
+     */
+    public List<Match> filter(String guildId, String id, String content) {
+        // a message is only ever received in one guild, so its id alone keys the verdict
+        Snapshot snapshot = this.snapshot.get();
+        List<Match> matches = verdicts.get(id, snapshot.version);
+        if (matches == null) {
+            matches = filter(snapshot, guildId, content);
+            matches = matches.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(matches);
+            verdicts.put(id, snapshot.version, matches);
         }
-        return badWords;
+        return matches;
+    }
+
+    /**
+     * Filters a {@link String} with one {@link Snapshot} of the blacklists.
+     *
+     * @param snapshot The {@link Snapshot} to filter with.
+     * @param guildId  The id of the {@link net.dv8tion.jda.core.entities.Guild} whose blacklist applies on top of the
+     *                 global blacklist, or <tt>null</tt> for the global blacklist only.
+     * @param s        The {@link String} to filter.
+     * @return a {@link List} of {@link Match}es for the words found in the provided {@link String}.
+     */
+    private static List<Match> filter(Snapshot snapshot, String guildId, String s) {
+        if (snapshot.prefilter != null && !snapshot.prefilter.mightMatch(s)) {
+            return Collections.emptyList();
+        }
+
+        // the Collector is reused, so a message without profanity allocates nothing
+        Collector collector = COLLECTORS.get();
+        collector.text = s;
+        collector.matcher = snapshot.matcher;
+        collector.global = snapshot.global;
+        collector.guild = guildId == null ? null : snapshot.guilds.get(guildId);
+        try {
+            snapshot.matcher.find(s, collector, collector);
+            return collector.matches == null ? Collections.emptyList() : collector.matches;
+        } finally {
+            collector.text = null;
+            collector.matcher = null;
+            collector.global = null;
+            collector.guild = null;
+            collector.matches = null;
+        }
+    }
+
+    /**
+     * Accessor for the version of the compiled blacklist. The version increases every time a change to the blacklist
+     * is compiled.
+     *
+     * @return the version of the compiled blacklist.
+     */
+    public long getVersion() {
+        return snapshot.get().version;
     }
 
     /**
@@ -36,7 +161,8 @@ public class ProfanityFilter {
      * @return a reference to this ProfanityFilter.
      */
     public ProfanityFilter add(String... words) {
-        blacklist.addAll(Arrays.asList(words));
+        update(words, true);
+        ChangeListener listener = this.listener;
         if (listener != null) {
             listener.onChange(this, ChangeType.ADD, words);
         }
@@ -50,7 +176,8 @@ public class ProfanityFilter {
      * @return a reference to this ProfanityFilter.
      */
     public ProfanityFilter remove(String... words) {
-        blacklist.removeAll(Arrays.asList(words));
+        update(words, false);
+        ChangeListener listener = this.listener;
         if (listener != null) {
             listener.onChange(this, ChangeType.REMOVE, words);
         }
@@ -58,12 +185,355 @@ public class ProfanityFilter {
     }
 
     /**
-     * Accesses the blacklist.
+     * Adds one or more words to the blacklist of a {@link net.dv8tion.jda.core.entities.Guild}. Unlike changes to the
+     * global blacklist, changes to the blacklist of a guild are not passed to the {@link ChangeListener}.
+     *
+     * @param guildId The id of the {@link net.dv8tion.jda.core.entities.Guild}.
+     * @param words   The words to add.
+     * @return a reference to this ProfanityFilter.
+     */
+    public ProfanityFilter addGuildWords(String guildId, String... words) {
+        updateGuild(guildId, words, true);
+        return this;
+    }
+
+    /**
+     * Removes one or more words from the blacklist of a {@link net.dv8tion.jda.core.entities.Guild}.
+     *
+     * @param guildId The id of the {@link net.dv8tion.jda.core.entities.Guild}.
+     * @param words   The words to remove.
+     * @return a reference to this ProfanityFilter.
+     */
+    public ProfanityFilter removeGuildWords(String guildId, String... words) {
+        updateGuild(guildId, words, false);
+        return this;
+    }
+
+    /**
+     * Replaces the blacklists of every {@link net.dv8tion.jda.core.entities.Guild}, compiling them once.
+     *
+     * @param blacklists The words blacklisted by each guild, by the id of the guild.
+     * @return a reference to this ProfanityFilter.
+     */
+    public ProfanityFilter loadGuildWords(Map<String, ? extends Collection<String>> blacklists) {
+        Draft draft;
+        synchronized (blacklist) {
+            for (long[] words : guilds.values()) {
+                replace(words, new BitSet());
+            }
+            guilds.clear();
+            for (Map.Entry<String, ? extends Collection<String>> entry : blacklists.entrySet()) {
+                BitSet words = new BitSet();
+                for (String word : entry.getValue()) {
+                    words.set(intern(word));
+                }
+                if (!words.isEmpty()) {
+                    guilds.put(entry.getKey(), replace(null, words));
+                }
+            }
+            draft = draft();
+        }
+        compile(draft);
+        return this;
+    }
+
+    /**
+     * Accesses the blacklist of a {@link net.dv8tion.jda.core.entities.Guild}, without the global blacklist.
+     *
+     * @param guildId The id of the {@link net.dv8tion.jda.core.entities.Guild}.
+     * @return an unmodifiable sorted {@link List} of the words blacklisted by the guild.
+     */
+    public List<String> getGuildWords(String guildId) {
+        List<String> words = new ArrayList<>();
+        synchronized (blacklist) {
+            long[] ids = guilds.get(guildId);
+            if (ids != null) {
+                BitSet bits = BitSet.valueOf(ids);
+                for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+                    words.add(dictionary.get(id));
+                }
+            }
+        }
+        Collections.sort(words);
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Applies a change to the global blacklist and compiles it.
+     *
+     * @param words The words that changed.
+     * @param add   <tt>true</tt> if the words were added, <tt>false</tt> if they were removed.
+     */
+    private void update(String[] words, boolean add) {
+        Draft draft;
+        synchronized (blacklist) {
+            boolean changed = add ? blacklist.addAll(Arrays.asList(words)) : blacklist.removeAll(Arrays.asList(words));
+            if (!changed) {
+                return;
+            }
+            BitSet ids = new BitSet();
+            for (String word : blacklist) {
+                ids.set(intern(word));
+            }
+            global = replace(global, ids);
+            this.words = Collections.unmodifiableList(new ArrayList<>(blacklist));
+            draft = draft();
+        }
+        compile(draft);
+    }
+
+    /**
+     * Applies a change to the blacklist of a {@link net.dv8tion.jda.core.entities.Guild} and compiles it.
+     *
+     * @param guildId The id of the {@link net.dv8tion.jda.core.entities.Guild}.
+     * @param words   The words that changed.
+     * @param add     <tt>true</tt> if the words were added, <tt>false</tt> if they were removed.
+     */
+    private void updateGuild(String guildId, String[] words, boolean add) {
+        Draft draft;
+        synchronized (blacklist) {
+            // the bitsets are shared with the drafts, so the guild gets a new one
+            long[] before = guilds.get(guildId);
+            BitSet original = before == null ? new BitSet() : BitSet.valueOf(before);
+            BitSet ids = (BitSet) original.clone();
+            for (String word : words) {
+                if (add) {
+                    ids.set(intern(word));
+                } else {
+                    Integer id = dictionaryIds.get(word.toLowerCase());
+                    if (id != null) {
+                        ids.clear(id);
+                    }
+                }
+            }
+            if (ids.equals(original)) {
+                return;
+            }
+            long[] after = replace(before, ids);
+            if (ids.isEmpty()) {
+                guilds.remove(guildId);
+            } else {
+                guilds.put(guildId, after);
+            }
+            draft = draft();
+        }
+        compile(draft);
+    }
+
+    /**
+     * Checks if clean messages are screened out by a {@link WordPrefilter} before being matched.
+     *
+     * @return <tt>true</tt> if the {@link WordPrefilter} is enabled, <tt>false</tt> otherwise.
+     */
+    public boolean isPrefilterEnabled() {
+        synchronized (blacklist) {
+            return prefilter;
+        }
+    }
+
+    /**
+     * Mutator for screening out clean messages with a {@link WordPrefilter} before matching them. Filtering gives the
+     * same results either way. The {@link WordPrefilter} is enabled by default.
+     *
+     * @param enabled <tt>true</tt> to enable the {@link WordPrefilter}, <tt>false</tt> to disable it.
+     * @return a reference to this ProfanityFilter.
+     */
+    public ProfanityFilter setPrefilterEnabled(boolean enabled) {
+        Draft draft;
+        synchronized (blacklist) {
+            if (prefilter == enabled) {
+                return this;
+            }
+            prefilter = enabled;
+            draft = draft();
+        }
+        compile(draft);
+        return this;
+    }
+
+    /**
+     * Accessor for the id of a word in the dictionary, adding the word if it is new. A new word counts as unused until
+     * a blacklist uses it. Must be called while holding the lock on the blacklist.
+     *
+     * @param word The word.
+     * @return the id of the word.
+     */
+    private int intern(String word) {
+        String lowerCase = word.toLowerCase();
+        Integer id = dictionaryIds.get(lowerCase);
+        if (id == null) {
+            id = dictionary.size();
+            dictionaryIds.put(lowerCase, id);
+            dictionary.add(lowerCase);
+            if (references.length <= id) {
+                references = Arrays.copyOf(references, Math.max(16, id * 2));
+            }
+            unused++;
+        }
+        return id;
+    }
+
+    /**
+     * Replaces the bitset of a blacklist, counting the uses of the words added and removed. Must be called while
+     * holding the lock on the blacklist.
+     *
+     * @param before The bitset of the blacklist, or <tt>null</tt> if it is new.
+     * @param after  The ids of the words in the blacklist from now on.
+     * @return the new bitset of the blacklist.
+     */
+    private long[] replace(long[] before, BitSet after) {
+        BitSet removed = before == null ? new BitSet() : BitSet.valueOf(before);
+        BitSet added = (BitSet) after.clone();
+        added.andNot(removed);
+        removed.andNot(after);
+        for (int id = added.nextSetBit(0); id >= 0; id = added.nextSetBit(id + 1)) {
+            if (references[id]++ == 0) {
+                unused--;
+                dictionaryRevision++;
+            }
+        }
+        for (int id = removed.nextSetBit(0); id >= 0; id = removed.nextSetBit(id + 1)) {
+            if (--references[id] == 0) {
+                unused++;
+                dictionaryRevision++;
+            }
+        }
+        return after.toLongArray();
+    }
+
+    /**
+     * Drops the words no blacklist uses from the dictionary and renumbers the rest, remapping every bitset. Must be
+     * called while holding the lock on the blacklist.
+     */
+    private void compact() {
+        int[] remap = new int[dictionary.size()];
+        List<String> words = new ArrayList<>(dictionary.size() - unused);
+        int[] counts = new int[Math.max(16, dictionary.size() - unused)];
+        dictionaryIds.clear();
+        for (int id = 0; id < remap.length; id++) {
+            if (references[id] == 0) {
+                remap[id] = AhoCorasick.NONE;
+                continue;
+            }
+            remap[id] = words.size();
+            counts[words.size()] = references[id];
+            dictionaryIds.put(dictionary.get(id), words.size());
+            words.add(dictionary.get(id));
+        }
+        dictionary.clear();
+        dictionary.addAll(words);
+        references = counts;
+        unused = 0;
+        dictionaryRevision++;
+
+        global = remap(global, remap);
+        guilds.replaceAll((guildId, ids) -> remap(ids, remap));
+    }
+
+    /**
+     * Renumbers the ids of a bitset.
      *
-     * @return the blacklist.
+     * @param ids   The bitset.
+     * @param remap The new id of each id.
+     * @return the new bitset.
+     */
+    private static long[] remap(long[] ids, int[] remap) {
+        BitSet bits = BitSet.valueOf(ids);
+        BitSet remapped = new BitSet();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            remapped.set(remap[id]);
+        }
+        return remapped.toLongArray();
+    }
+
+    /**
+     * Takes the blacklists as a new revision to compile, dropping unused words first. The {@link Draft} shares the
+     * bitsets, which are never changed, and the words of the dictionary, which are only copied when the words in use
+     * changed. Must be called while holding the lock on the blacklist.
+     *
+     * @return the {@link Draft}.
+     */
+    private Draft draft() {
+        if (unused > 0) {
+            compact();
+        }
+        if (compiledWordsRevision != dictionaryRevision) {
+            compiledWords = dictionary.toArray(new String[dictionary.size()]);
+            compiledWordsRevision = dictionaryRevision;
+        }
+        long revision = this.revision + 1;
+        this.revision = revision;
+        return new Draft(compiledWords, dictionaryRevision, global, new HashMap<>(guilds), prefilter, revision);
+    }
+
+    /**
+     * Compiles a {@link Draft}, in the background if the dictionary is large and has changed.
+     *
+     * @param draft The {@link Draft} to compile.
+     */
+    private void compile(Draft draft) {
+        if (draft.dictionary.length >= BACKGROUND_COMPILE_SIZE
+                && draft.dictionaryRevision != snapshot.get().dictionaryRevision) {
+            compiler.execute(() -> compileNow(draft));
+        } else {
+            compileNow(draft);
+        }
+    }
+
+    /**
+     * Waits until every change made so far has been compiled.
+     *
+     * @throws InterruptedException if the current thread was interrupted while waiting.
+     */
+    public void awaitCompilation() throws InterruptedException {
+        try {
+            // the compiler runs in order, so an empty task finishes after every compilation queued before it
+            compiler.submit(() -> {
+            }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Compiles a {@link Draft} into a new {@link Snapshot} and publishes it, unless a later revision has been published
+     * in the meantime.
+     *
+     * @param draft The {@link Draft} to compile.
+     */
+    private void compileNow(Draft draft) {
+        if (draft.revision < this.revision) {
+            // superseded by a later change, which compiles every blacklist anyway
+            return;
+        }
+
+        // a change that uses the same words only changes the bitsets, so the compiled dictionary is reused
+        Snapshot published = snapshot.get();
+        boolean reuse = published.dictionaryRevision == draft.dictionaryRevision;
+        WordMatcher matcher = reuse ? published.matcher : new WordMatcher(Arrays.asList(draft.dictionary));
+        WordPrefilter prefilter;
+        if (reuse && published.prefilterEnabled == draft.prefilter) {
+            prefilter = published.prefilter;
+        } else {
+            // the words a rule matching part of a word can match are not known up front, so they can't be prefiltered
+            prefilter = draft.prefilter && matcher.isWholeWordOnly()
+                    ? new WordPrefilter(Arrays.asList(draft.dictionary))
+                    : null;
+        }
+
+        Snapshot compiled = new Snapshot(matcher, prefilter, draft.prefilter, draft.dictionaryRevision, draft.global,
+                draft.guilds, draft.revision);
+        snapshot.accumulateAndGet(compiled, (current, next) -> next.version > current.version ? next : current);
+    }
+
+    /**
+     * Accesses the global blacklist. The blacklist reflects every change made so far, even one that is still being
+     * compiled.
+     *
+     * @return an unmodifiable {@link List} of the words in the blacklist.
      */
     public List<String> asList() {
-        return new ArrayList<>(blacklist);
+        return words;
     }
 
     /**
@@ -124,4 +594,153 @@ public class ProfanityFilter {
         }
     }
 
+    /**
+     * A copy of the blacklists taken for compiling.
+     */
+    private static class Draft {
+
+        private final String[] dictionary;
+        private final long dictionaryRevision;
+        private final long[] global;
+        private final Map<String, long[]> guilds;
+        private final boolean prefilter;
+        private final long revision;
+
+        /**
+         * @param dictionary         The words of the dictionary, by id.
+         * @param dictionaryRevision The revision of the words of the dictionary.
+         * @param global             The ids of the words in the global blacklist.
+         * @param guilds             The ids of the words in the blacklist of each guild, by the id of the guild.
+         * @param prefilter          <tt>true</tt> to build a {@link WordPrefilter}, <tt>false</tt> otherwise.
+         * @param revision           The revision of the blacklists.
+         */
+        Draft(String[] dictionary, long dictionaryRevision, long[] global, Map<String, long[]> guilds,
+              boolean prefilter, long revision) {
+            this.dictionary = dictionary;
+            this.dictionaryRevision = dictionaryRevision;
+            this.global = global;
+            this.guilds = guilds;
+            this.prefilter = prefilter;
+            this.revision = revision;
+        }
+
+    }
+
+    /**
+     * Immutable compiled blacklists.
+     */
+    private static class Snapshot {
+
+        private final WordMatcher matcher;
+        private final WordPrefilter prefilter;
+        private final boolean prefilterEnabled;
+        private final long dictionaryRevision;
+        private final long[] global;
+        private final Map<String, long[]> guilds;
+        private final long version;
+
+        /**
+         * @param matcher            The {@link WordMatcher} of the dictionary.
+         * @param prefilter          The {@link WordPrefilter} of the dictionary, or <tt>null</tt> to match every
+         *                           message.
+         * @param prefilterEnabled   <tt>true</tt> if the {@link WordPrefilter} was enabled, <tt>false</tt> otherwise.
+         * @param dictionaryRevision The revision of the words of the dictionary that was compiled.
+         * @param global             The mask of the global blacklist.
+         * @param guilds             The mask of the blacklist of each guild, by the id of the guild.
+         * @param version            The revision of the blacklists that was compiled.
+         */
+        Snapshot(WordMatcher matcher, WordPrefilter prefilter, boolean prefilterEnabled, long dictionaryRevision,
+                 long[] global, Map<String, long[]> guilds, long version) {
+            this.matcher = matcher;
+            this.prefilter = prefilter;
+            this.prefilterEnabled = prefilterEnabled;
+            this.dictionaryRevision = dictionaryRevision;
+            this.global = global;
+            this.guilds = guilds;
+            this.version = version;
+        }
+
+    }
+
+    /**
+     * A word found in a message and the {@link Rule} of the blacklist it matched.
+     */
+    public static class Match {
+
+        private final String word;
+        private final String rule;
+
+        /**
+         * @param word The word as it was written, in lower case.
+         * @param rule The {@link Rule} the word matched.
+         */
+        public Match(String word, String rule) {
+            this.word = word;
+            this.rule = rule;
+        }
+
+        /**
+         * Accessor for the word as it was written in the message, in lower case.
+         *
+         * @return the word.
+         */
+        public String getWord() {
+            return word;
+        }
+
+        /**
+         * Accessor for the {@link Rule} of the blacklist the word matched.
+         *
+         * @return the {@link Rule}.
+         */
+        public String getRule() {
+            return rule;
+        }
+
+        @Override
+        public String toString() {
+            return word;
+        }
+
+    }
+
+    /**
+     * Collects the words found in one message by the {@link Rule}s in the global blacklist or the blacklist of its
+     * guild. Each thread reuses its own Collector.
+     */
+    private static class Collector implements IntPredicate, AhoCorasick.MatchListener {
+
+        private String text;
+        private WordMatcher matcher;
+        private long[] global;
+        private long[] guild;
+        private List<Match> matches;
+
+        @Override
+        public boolean test(int rule) {
+            return isSet(global, rule) || isSet(guild, rule);
+        }
+
+        @Override
+        public void onMatch(int start, int end, int rule) {
+            if (matches == null) {
+                matches = new ArrayList<>();
+            }
+            matches.add(new Match(text.substring(start, end).toLowerCase(), matcher.getWord(rule)));
+        }
+
+        /**
+         * Checks if a rule is in a mask.
+         *
+         * @param mask The mask, or <tt>null</tt> for an empty mask.
+         * @param id   The id of the rule.
+         * @return <tt>true</tt> if the rule is in the mask, <tt>false</tt> otherwise.
+         */
+        private static boolean isSet(long[] mask, int id) {
+            int index = id >>> 6;
+            return mask != null && index < mask.length && (mask[index] & (1L << id)) != 0;
+        }
+
+    }
+
 }
@@ -34,6 +34,23 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
     // drop table statement
     private static final String DROP_TABLE = "DROP TABLE IF EXISTS " + COMMAND;
 
+    // query statements
+    private static final String SELECT = "SELECT * FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
+    private static final String SELECT_ALL = "SELECT * FROM " + COMMAND + " ORDER BY " + COMMAND_CLASS;
+    private static final String SELECT_ALL_KEYS =
+            "SELECT " + COMMAND_CLASS + " FROM " + COMMAND + " ORDER BY " + COMMAND_CLASS;
+    private static final String INSERT = "INSERT INTO " + COMMAND +
+            " (" + COMMAND_CLASS + "," + COMMAND_TAG + "," + COMMAND_IS_ENABLED + ")" +
+            "VALUES (?,?,?)";
+    private static final String UPDATE = "UPDATE " + COMMAND + " SET " +
+            COMMAND_TAG + " = ?, " +
+            COMMAND_IS_ENABLED + " = ? " +
+            "WHERE " + COMMAND_CLASS + " = ?";
+    private static final String UPSERT = upsertQuery(COMMAND, COMMAND_CLASS, COMMAND_TAG, COMMAND_IS_ENABLED);
+    private static final String DELETE = "DELETE FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
+    private static final String EXISTS =
+            "SELECT " + COMMAND_CLASS + " FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
+
     /**
      * Default constructor
      */
@@ -82,13 +99,9 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT);
             statement.setString(1, className);
             resultSet = statement.executeQuery();
             CommandSetting setting = null;
@@ -104,7 +117,6 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -121,13 +133,9 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + COMMAND + " ORDER BY " + COMMAND_CLASS;
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT_ALL);
             resultSet = statement.executeQuery();
             List<CommandSetting> settings = new ArrayList<>();
             while (resultSet.next()) {
@@ -148,7 +156,6 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -164,13 +171,9 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT " + COMMAND_CLASS + " FROM " + COMMAND + " ORDER BY " + COMMAND_CLASS;
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT_ALL_KEYS);
             resultSet = statement.executeQuery();
             List<String> tags = new ArrayList<>();
             while (resultSet.next()) {
@@ -182,7 +185,6 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -195,18 +197,14 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
      */
     @Override
     public int insert(CommandSetting... settings) {
-        String query = "INSERT INTO " + COMMAND +
-                " (" + COMMAND_CLASS + "," + COMMAND_TAG + "," + COMMAND_IS_ENABLED + ")" +
-                "VALUES (?,?,?)";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(settings.length);
         for (CommandSetting setting : settings) {
-            result += query(query,
+            rows.add(new String[]{
                     setting.getCls().getName(),
                     setting.getTag(),
-                    Boolean.toString(setting.isEnabled()));
+                    Boolean.toString(setting.isEnabled())});
         }
-        return result;
+        return batch(INSERT, rows);
     }
 
     /**
@@ -217,19 +215,32 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
      */
     @Override
     public int update(CommandSetting... settings) {
-        String query = "UPDATE " + COMMAND + " SET " +
-                COMMAND_TAG + " = ?, " +
-                COMMAND_IS_ENABLED + " = ? " +
-                "WHERE " + COMMAND_CLASS + " = ?";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(settings.length);
         for (CommandSetting setting : settings) {
-            result += query(query,
+            rows.add(new String[]{
                     setting.getTag(),
                     Boolean.toString(setting.isEnabled()),
-                    setting.getCls().getName());
+                    setting.getCls().getName()});
+        }
+        return batch(UPDATE, rows);
+    }
+
+    /**
+     * Inserts one or more {@link CommandSetting}, or updates those whose class is already stored.
+     *
+     * @param settings The {@link CommandSetting}s to insert or update.
+     * @return the number of {@link CommandSetting}s inserted or updated.
+     */
+    @Override
+    public int upsert(CommandSetting... settings) {
+        List<String[]> rows = new ArrayList<>(settings.length);
+        for (CommandSetting setting : settings) {
+            rows.add(new String[]{
+                    setting.getCls().getName(),
+                    setting.getTag(),
+                    Boolean.toString(setting.isEnabled())});
         }
-        return result;
+        return batch(UPSERT, rows);
     }
 
     /**
@@ -240,13 +251,11 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
      */
     @Override
     public int delete(String... classNames) {
-        String query = "DELETE FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(classNames.length);
         for (String className : classNames) {
-            result += query(query, className);
+            rows.add(new String[]{className});
         }
-        return result;
+        return batch(DELETE, rows);
     }
 
     /**
@@ -262,13 +271,9 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return false;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT " + COMMAND_CLASS + " FROM " + COMMAND + " WHERE " + COMMAND_CLASS + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, EXISTS);
             statement.setString(1, className);
             resultSet = statement.executeQuery();
             return resultSet.next();
@@ -277,7 +282,6 @@ public class CommandDB extends SQLiteDatabase<CommandSetting, String> {
             return false;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -1,23 +1,69 @@
 package com.discordbot.sql;
 
 import net.dv8tion.jda.core.utils.SimpleLog;
-import org.sqlite.SQLiteDataSource;
+import org.sqlite.SQLiteConfig;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A connection pool for managing connections to an SQLite database.
+ * A connection pool for managing connections to an SQLite database. Up to {@link #MAX_CONNECTIONS} connections are
+ * opened as they are needed and kept open, so a query does not pay for opening the database file and warming up its
+ * page cache. Connections are opened in WAL journal mode, so readers do not block each other or the writer.
+ * <p>
+ * Each connection keeps the last {@link #STATEMENT_CACHE_SIZE} {@link PreparedStatement}s made through
+ * {@link #prepareStatement(Connection, String)}, so running the same SQL again skips parsing and planning it.
+ * <p>
+ * A connection not freed within {@link #LEAK_THRESHOLD_MILLIS} is logged once along with the thread that took it and
+ * what that thread is doing at that point. Taking a connection only records the time and the thread, so leak
+ * detection costs nothing on the way to the database.
  */
 public class ConnectionPool {
 
+    /**
+     * The most connections kept open to one database
+     */
+    public static final int MAX_CONNECTIONS = 4;
+    /**
+     * The time in milliseconds {@link #getConnection()} waits for a connection to be freed when all are in use
+     */
+    public static final long ACQUIRE_TIMEOUT_MILLIS = 10000;
+    /**
+     * The time in milliseconds SQLite waits for a lock held by another connection before failing
+     */
+    public static final int BUSY_TIMEOUT_MILLIS = 5000;
+    /**
+     * The time in milliseconds a connection can be held before it is reported as leaked
+     */
+    public static final long LEAK_THRESHOLD_MILLIS = 30000;
+    /**
+     * The most {@link PreparedStatement}s kept per connection
+     */
+    public static final int STATEMENT_CACHE_SIZE = 32;
+
     private static final SimpleLog LOG = SimpleLog.getLog("SQLite");
+    private static final String BATCH_PREFIX = "batch:";
 
     private static Map<String, ConnectionPool> pools = new HashMap<>();
+    private static ScheduledExecutorService leakDetector;
 
-    private SQLiteDataSource dataSource = null;
+    private final String url;
+    private final SQLiteConfig config = new SQLiteConfig();
+    private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+    private final Map<Connection, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Connection, Map<String, PreparedStatement>> statements = new ConcurrentHashMap<>();
+    private int open = 0;
+    private volatile boolean closed = false;
 
     /**
      * Private constructor for factory.
@@ -25,8 +71,12 @@ public class ConnectionPool {
      * @param dbFile The path to the SQLite database.
      */
     private ConnectionPool(String dbFile) {
-        dataSource = new SQLiteDataSource();
-        dataSource.setUrl("jdbc:sqlite:" + dbFile);
+        url = "jdbc:sqlite:" + dbFile;
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        // in WAL mode NORMAL only syncs at checkpoints, and a crash can lose the last commits but not corrupt the file
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setPragma(SQLiteConfig.Pragma.BUSY_TIMEOUT, Integer.toString(BUSY_TIMEOUT_MILLIS));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
     }
 
     /**
@@ -38,30 +88,186 @@ public class ConnectionPool {
     public static synchronized ConnectionPool getInstance(String dbFile) {
         if (!pools.containsKey(dbFile)) {
             pools.put(dbFile, new ConnectionPool(dbFile));
+            if (leakDetector == null) {
+                leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "ConnectionPool-LeakDetector");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                leakDetector.scheduleWithFixedDelay(ConnectionPool::detectLeaks, LEAK_THRESHOLD_MILLIS,
+                        LEAK_THRESHOLD_MILLIS / 2, TimeUnit.MILLISECONDS);
+            }
         }
         return pools.get(dbFile);
     }
 
     /**
-     * Opens a {@link Connection} to the SQLite database.
+     * Takes a {@link Connection} to the SQLite database from the pool, opening a new one if none is idle and fewer
+     * than {@link #MAX_CONNECTIONS} are open. Otherwise waits up to {@link #ACQUIRE_TIMEOUT_MILLIS} for one to be
+     * freed.
+     * Every {@link Connection} taken has to be given back with {@link #freeConnection(Connection)}.
      *
-     * @return the {@link Connection} to the SQLite database.
+     * @return the {@link Connection} to the SQLite database, or <tt>null</tt> if none could be opened in time.
      */
     public Connection getConnection() {
+        if (closed) {
+            return null;
+        }
+        Connection connection = idle.poll();
+        if (connection == null) {
+            connection = open();
+        }
+        if (connection == null) {
+            try {
+                connection = idle.poll(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (connection == null) {
+                LOG.warn("No connection to " + url + " was freed within " + ACQUIRE_TIMEOUT_MILLIS + " ms");
+                return null;
+            }
+        }
+        leases.put(connection, new Lease());
+        return connection;
+    }
+
+    /**
+     * Opens a new {@link Connection} if fewer than {@link #MAX_CONNECTIONS} are open.
+     *
+     * @return the {@link Connection}, or <tt>null</tt> if the pool is full or the {@link Connection} could not be
+     * opened.
+     */
+    private Connection open() {
+        synchronized (this) {
+            if (closed || open >= MAX_CONNECTIONS) {
+                return null;
+            }
+            open++;
+        }
         try {
-            return dataSource.getConnection();
+            Connection connection = config.createConnection(url);
+            statements.put(connection, new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > STATEMENT_CACHE_SIZE) {
+                        DBUtil.closePreparedStatement(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            });
+            return connection;
         } catch (SQLException e) {
             LOG.log(e);
+            synchronized (this) {
+                open--;
+            }
             return null;
         }
     }
 
     /**
-     * Closes a {@link Connection} to the SQLite database.
+     * Prepares a statement on a {@link Connection} taken from the pool, reusing the {@link PreparedStatement} made for
+     * the same SQL on that {@link Connection} before. The {@link PreparedStatement} belongs to the ConnectionPool: it
+     * must not be closed, and must not be used after the {@link Connection} is freed. Any {@link java.sql.ResultSet}
+     * of it has to be closed before the {@link Connection} is freed. It must not be run as a batch, see
+     * {@link #prepareBatch(Connection, String)}.
      *
-     * @param connection The {@link Connection} to close.
+     * @param connection The {@link Connection} taken from the pool.
+     * @param sql        The SQL of the statement.
+     * @return the {@link PreparedStatement}, with its parameters cleared.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        return prepare(connection, sql, sql);
+    }
+
+    /**
+     * Prepares a statement to be run as a batch, like {@link #prepareStatement(Connection, String)}. Statements for
+     * batches are cached apart from the others, since sqlite-jdbc cannot run a statement on its own once it has run
+     * a batch.
+     *
+     * @param connection The {@link Connection} taken from the pool.
+     * @param sql        The SQL of the statement.
+     * @return the {@link PreparedStatement}, with its parameters and batch cleared.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    public PreparedStatement prepareBatch(Connection connection, String sql) throws SQLException {
+        return prepare(connection, sql, BATCH_PREFIX + sql);
+    }
+
+    /**
+     * Prepares a statement, reusing the {@link PreparedStatement} cached under the same key.
+     *
+     * @param connection The {@link Connection} taken from the pool.
+     * @param sql        The SQL of the statement.
+     * @param key        The key of the {@link PreparedStatement} in the cache.
+     * @return the {@link PreparedStatement}, with its parameters and batch cleared.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    private PreparedStatement prepare(Connection connection, String sql, String key) throws SQLException {
+        Map<String, PreparedStatement> cache = statements.get(connection);
+        if (cache == null) {
+            throw new IllegalArgumentException("Connection was not taken from the pool");
+        }
+
+        PreparedStatement statement = cache.get(key);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            cache.put(key, statement);
+        } else {
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+        return statement;
+    }
+
+    /**
+     * Gives a {@link Connection} back to the pool. A transaction left open is rolled back, and a {@link Connection}
+     * that is broken is closed so a new one can take its place.
+     *
+     * @param connection The {@link Connection} to free.
      */
     public void freeConnection(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (leases.remove(connection) == null) {
+            LOG.warn("Freed a connection to " + url + " that was not taken from the pool");
+            return;
+        }
+
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (!closed) {
+                    idle.add(connection);
+                    return;
+                }
+            }
+        } catch (SQLException e) {
+            LOG.log(e);
+        }
+        close(connection);
+    }
+
+    /**
+     * Closes a {@link Connection} that has left the pool.
+     *
+     * @param connection The {@link Connection} to close.
+     */
+    private void close(Connection connection) {
+        synchronized (this) {
+            open--;
+        }
+        Map<String, PreparedStatement> cache = statements.remove(connection);
+        if (cache != null) {
+            cache.values().forEach(DBUtil::closePreparedStatement);
+        }
         try {
             connection.close();
         } catch (SQLException e) {
@@ -69,4 +275,72 @@ public class ConnectionPool {
         }
     }
 
+    /**
+     * Closes the idle connections and every connection freed from now on. {@link #getConnection()} returns
+     * <tt>null</tt> after the ConnectionPool has been closed.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (Connection connection = idle.poll(); connection != null; connection = idle.poll()) {
+            close(connection);
+        }
+    }
+
+    /**
+     * Closes every ConnectionPool.
+     */
+    public static synchronized void closeAll() {
+        pools.values().forEach(ConnectionPool::close);
+    }
+
+    /**
+     * Accessor for the number of open connections, idle or in use.
+     *
+     * @return the number of open connections.
+     */
+    public synchronized int getOpenConnections() {
+        return open;
+    }
+
+    /**
+     * Logs the connections of every ConnectionPool held for longer than {@link #LEAK_THRESHOLD_MILLIS}.
+     */
+    private static void detectLeaks() {
+        ConnectionPool[] instances;
+        synchronized (ConnectionPool.class) {
+            instances = pools.values().toArray(new ConnectionPool[pools.size()]);
+        }
+        long now = System.currentTimeMillis();
+        for (ConnectionPool pool : instances) {
+            for (Lease lease : pool.leases.values()) {
+                if (!lease.reported && now - lease.taken > LEAK_THRESHOLD_MILLIS) {
+                    lease.reported = true;
+                    boolean alive = lease.thread.isAlive();
+                    LOG.warn("A connection to " + pool.url + " has not been freed for " + (now - lease.taken)
+                            + " ms, it was taken by thread " + lease.thread.getName()
+                            + (alive ? ", which is now at:" : ", which has ended"));
+                    if (alive) {
+                        // the stack is only captured now, taking it for every lease would slow down every query
+                        Throwable holder = new Throwable("Stack of " + lease.thread.getName());
+                        holder.setStackTrace(lease.thread.getStackTrace());
+                        LOG.log(holder);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A {@link Connection} taken from the pool.
+     */
+    private static class Lease {
+
+        private final long taken = System.currentTimeMillis();
+        private final Thread thread = Thread.currentThread();
+        private volatile boolean reported = false;
+
+    }
+
 }
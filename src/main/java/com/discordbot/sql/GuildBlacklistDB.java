@@ -0,0 +1,46 @@
+package com.discordbot.sql;
+
+/**
+ * A {@link SQLiteDatabase} for querying the Guild Blacklist Database. Each {@link com.discordbot.model.Setting} maps
+ * the id of a {@link net.dv8tion.jda.core.entities.Guild} to the words it blacklists, one per line.
+ *
+ * @see SQLiteDatabase
+ */
+public class GuildBlacklistDB extends SettingDB {
+
+    // table constants
+    private final static String TABLE = "guild_blacklist";
+
+    // create table statement
+    private final static String CREATE_TABLE_SETTING =
+            "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                    SETTING_KEY +   " TEXT     NOT NULL  PRIMARY KEY, " +
+                    SETTING_VALUE + " TEXT     NOT NULL);";
+
+    // drop table statement
+    private final static String DROP_TABLE = "DROP TABLE IF EXISTS " + TABLE;
+
+    /**
+     * Constructor sets table name
+     */
+    public GuildBlacklistDB() {
+        super(TABLE);
+    }
+
+    /**
+     * Called by {@link SQLiteDatabase} if the database needs to be created.
+     */
+    @Override
+    protected void onCreate() {
+        query(CREATE_TABLE_SETTING);
+    }
+
+    /**
+     * Called by {@link SQLiteDatabase} if the database needs to be destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        query(DROP_TABLE);
+    }
+
+}
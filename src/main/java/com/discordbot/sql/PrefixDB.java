@@ -0,0 +1,46 @@
+package com.discordbot.sql;
+
+/**
+ * A {@link SQLiteDatabase} for querying the Command Prefix Database. Each {@link com.discordbot.model.Setting} maps
+ * the id of a {@link net.dv8tion.jda.core.entities.Guild} to its command prefix.
+ *
+ * @see SQLiteDatabase
+ */
+public class PrefixDB extends SettingDB {
+
+    // table constants
+    private final static String TABLE = "command_prefix";
+
+    // create table statement
+    private final static String CREATE_TABLE_SETTING =
+            "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                    SETTING_KEY +   " TEXT     NOT NULL  PRIMARY KEY, " +
+                    SETTING_VALUE + " TEXT     NOT NULL);";
+
+    // drop table statement
+    private final static String DROP_TABLE = "DROP TABLE IF EXISTS " + TABLE;
+
+    /**
+     * Constructor sets table name
+     */
+    public PrefixDB() {
+        super("command_prefix");
+    }
+
+    /**
+     * Called by {@link SQLiteDatabase} if the database needs to be created.
+     */
+    @Override
+    protected void onCreate() {
+        query(CREATE_TABLE_SETTING);
+    }
+
+    /**
+     * Called by {@link SQLiteDatabase} if the database needs to be destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        query(DROP_TABLE);
+    }
+
+}
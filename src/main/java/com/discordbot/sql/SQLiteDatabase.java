@@ -37,6 +37,14 @@ public abstract class SQLiteDatabase<Relation, Key> {
                     INFO_KEY + " TEXT     NOT NULL  PRIMARY KEY, " +
                     INFO_VALUE + " INTEGER     NOT NULL);";
 
+    // version statements
+    private static final String SELECT_VERSION =
+            "SELECT * FROM " + INFO + " WHERE " + INFO_KEY + " = ?";
+    private static final String INSERT_VERSION =
+            "INSERT INTO " + INFO + " (" + INFO_KEY + "," + INFO_VALUE + ")" + "VALUES (?,?)";
+    private static final String UPDATE_VERSION =
+            "UPDATE " + INFO + " SET " + INFO_VALUE + " = ? WHERE " + INFO_KEY + " = ?";
+
     /**
      * Protected constructor calls {@link #initialize(int)}.
      *
@@ -80,13 +88,9 @@ public abstract class SQLiteDatabase<Relation, Key> {
             return 0;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + INFO + " WHERE " + INFO_KEY + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT_VERSION);
             statement.setString(1, getClass().getName());
             resultSet = statement.executeQuery();
             int version = 0;
@@ -99,7 +103,6 @@ public abstract class SQLiteDatabase<Relation, Key> {
             return 0;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -111,9 +114,7 @@ public abstract class SQLiteDatabase<Relation, Key> {
      * @return 1 if the version was inserted, 0 if not.
      */
     private int insertVersion(int version) {
-        String query = "INSERT INTO " + INFO + " (" + INFO_KEY + "," + INFO_VALUE + ")" +
-                "VALUES (?,?)";
-        return query(query, getClass().getName(), Integer.toString(version));
+        return query(INSERT_VERSION, getClass().getName(), Integer.toString(version));
     }
 
     /**
@@ -123,8 +124,7 @@ public abstract class SQLiteDatabase<Relation, Key> {
      * @return 1 if the version was updated, 0 if not.
      */
     private int updateVersion(int version) {
-        String query = "UPDATE " + INFO + " SET " + INFO_VALUE + " = ? WHERE " + INFO_KEY + " = ?";
-        return query(query, Integer.toString(version), getClass().getName());
+        return query(UPDATE_VERSION, Integer.toString(version), getClass().getName());
     }
 
     /**
@@ -169,7 +169,7 @@ public abstract class SQLiteDatabase<Relation, Key> {
     public abstract List<Relation> selectAll();
 
     /**
-     * Inserts one or more {@link Relation}.
+     * Inserts one or more {@link Relation} in one transaction, see {@link #batch(String, List)}.
      *
      * @param relations The {@link Relation}s to insert.
      * @return the number of {@link Relation}s inserted.
@@ -177,7 +177,7 @@ public abstract class SQLiteDatabase<Relation, Key> {
     public abstract int insert(Relation... relations);
 
     /**
-     * Updates one or more {@link Relation}.
+     * Updates one or more {@link Relation} in one transaction, see {@link #batch(String, List)}.
      *
      * @param relations The {@link Relation}s to update.
      * @return the number of {@link Relation}s updated.
@@ -185,7 +185,17 @@ public abstract class SQLiteDatabase<Relation, Key> {
     public abstract int update(Relation... relations);
 
     /**
-     * Deletes one or more {@link Relation}.
+     * Inserts one or more {@link Relation}, or updates those whose {@link Key} is already used, in one transaction.
+     * Each {@link Relation} is written by a single statement, so there is no race between checking for the
+     * {@link Key} and writing.
+     *
+     * @param relations The {@link Relation}s to insert or update.
+     * @return the number of {@link Relation}s inserted or updated.
+     */
+    public abstract int upsert(Relation... relations);
+
+    /**
+     * Deletes one or more {@link Relation} in one transaction, see {@link #batch(String, List)}.
      *
      * @param keys The {@link Key} of the {@link Relation}s to delete.
      * @return the number of {@link Relation}s deleted.
@@ -226,7 +236,8 @@ public abstract class SQLiteDatabase<Relation, Key> {
     }
 
     /**
-     * Queries the database.
+     * Queries the database. The statement is prepared once per {@link Connection} and reused, so the query should be
+     * a constant.
      *
      * @param query  The query to perform.
      * @param values The values to prepare the query with.
@@ -238,9 +249,8 @@ public abstract class SQLiteDatabase<Relation, Key> {
             return 0;
         }
 
-        PreparedStatement statement = null;
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, query);
             for (int i = 0; i < values.length; i++) {
                 statement.setString(i + 1, values[i]);
             }
@@ -249,7 +259,76 @@ public abstract class SQLiteDatabase<Relation, Key> {
             LOG.log(e);
             return 0;
         } finally {
-            DBUtil.closeStatement(statement);
+            connectionPool.freeConnection(connection);
+        }
+    }
+
+    /**
+     * Builds an upsert statement, which inserts a row or updates it if its key is already used. Needs SQLite 3.24 or
+     * later.
+     *
+     * @param table   The table to write to.
+     * @param key     The primary key column, which is the first parameter of the statement.
+     * @param columns The other columns, which are the following parameters of the statement in order.
+     * @return the statement.
+     */
+    protected static String upsertQuery(String table, String key, String... columns) {
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(table).append(" (").append(key);
+        for (String column : columns) {
+            query.append(",").append(column);
+        }
+        query.append(") VALUES (?");
+        for (String ignored : columns) {
+            query.append(",?");
+        }
+        query.append(") ON CONFLICT(").append(key).append(") DO UPDATE SET ");
+        for (int i = 0; i < columns.length; i++) {
+            query.append(i == 0 ? "" : ", ").append(columns[i]).append(" = excluded.").append(columns[i]);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Queries the database once for each row, as one JDBC batch in one transaction, so the rows cost a single commit
+     * instead of one each. Either every row is written or none is.
+     *
+     * @param query The query to perform.
+     * @param rows  The values to prepare the query with, one array per row.
+     * @return the number of {@link Relation}s changed.
+     */
+    protected int batch(String query, List<String[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        } else if (rows.size() == 1) {
+            return query(query, rows.get(0));
+        }
+
+        Connection connection = connectionPool.getConnection();
+        if (connection == null) {
+            return 0;
+        }
+
+        try {
+            connection.setAutoCommit(false);
+            PreparedStatement statement = connectionPool.prepareBatch(connection, query);
+            for (String[] values : rows) {
+                for (int i = 0; i < values.length; i++) {
+                    statement.setString(i + 1, values[i]);
+                }
+                statement.addBatch();
+            }
+            int result = 0;
+            for (int count : statement.executeBatch()) {
+                result += Math.max(count, 0);
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            return result;
+        } catch (SQLException e) {
+            LOG.log(e);
+            return 0;
+        } finally {
+            // a transaction left open by a failure is rolled back by the ConnectionPool
             connectionPool.freeConnection(connection);
         }
     }
@@ -34,12 +34,20 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
 
     private final String TABLE;
 
+    // query statements, which depend on the table
+    private final String SELECT;
+    private final String SELECT_ALL;
+    private final String INSERT;
+    private final String UPDATE;
+    private final String UPSERT;
+    private final String DELETE;
+    private final String EXISTS;
+
     /**
      * Default constructor
      */
     public SettingDB() {
-        super(DB_VERSION);
-        TABLE = SETTING;
+        this(SETTING, true);
     }
 
     /**
@@ -48,14 +56,33 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
      * @param table_name The name to use for the table.
      */
     protected SettingDB(String table_name) {
+        this(table_name, false);
+    }
+
+    /**
+     * Private constructor building the statements for the table.
+     *
+     * @param table_name The name to use for the table.
+     * @param reserved   <tt>true</tt> if the table name is the one reserved for this class, <tt>false</tt> otherwise.
+     */
+    private SettingDB(String table_name, boolean reserved) {
         super(DB_VERSION);
 
         // reserve setting table name for this class only
-        if (table_name.equals("setting")) {
+        if (!reserved && table_name.equals("setting")) {
             throw new IllegalArgumentException("Table name cannot be setting");
         }
 
         TABLE = table_name;
+        SELECT = "SELECT * FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
+        SELECT_ALL = "SELECT * FROM " + TABLE + " ORDER BY " + SETTING_KEY;
+        INSERT = "INSERT INTO " + TABLE +
+                " (" + SETTING_KEY + "," + SETTING_VALUE + ")" +
+                "VALUES (?,?)";
+        UPDATE = "UPDATE " + TABLE + " SET " + SETTING_VALUE + " = ?" + " WHERE " + SETTING_KEY + " = ?";
+        UPSERT = upsertQuery(TABLE, SETTING_KEY, SETTING_VALUE);
+        DELETE = "DELETE FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
+        EXISTS = "SELECT " + SETTING_KEY + " FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
     }
 
     /**
@@ -99,13 +126,9 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT);
             statement.setString(1, key);
             resultSet = statement.executeQuery();
             if (resultSet.next()) {
@@ -117,7 +140,6 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -134,13 +156,9 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + TABLE + " ORDER BY " + SETTING_KEY;
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT_ALL);
             resultSet = statement.executeQuery();
             List<Setting> settings = new ArrayList<>();
             while (resultSet.next()) {
@@ -152,7 +170,6 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -165,15 +182,11 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
      */
     @Override
     public int insert(Setting... settings) {
-        String query = "INSERT INTO " + TABLE +
-                " (" + SETTING_KEY + "," + SETTING_VALUE + ")" +
-                "VALUES (?,?)";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(settings.length);
         for (Setting setting : settings) {
-            result += query(query, setting.getKey(), setting.getValue());
+            rows.add(new String[]{setting.getKey(), setting.getValue()});
         }
-        return result;
+        return batch(INSERT, rows);
     }
 
     /**
@@ -184,13 +197,26 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
      */
     @Override
     public int update(Setting... settings) {
-        String query = "UPDATE " + TABLE + " SET " + SETTING_VALUE + " = ?" + " WHERE " + SETTING_KEY + " = ?";
+        List<String[]> rows = new ArrayList<>(settings.length);
+        for (Setting setting : settings) {
+            rows.add(new String[]{setting.getValue(), setting.getKey()});
+        }
+        return batch(UPDATE, rows);
+    }
 
-        int result = 0;
+    /**
+     * Inserts one or more {@link Setting}, or updates those whose key is already used.
+     *
+     * @param settings The {@link Setting}s to insert or update.
+     * @return the number of {@link Setting}s inserted or updated.
+     */
+    @Override
+    public int upsert(Setting... settings) {
+        List<String[]> rows = new ArrayList<>(settings.length);
         for (Setting setting : settings) {
-            result += query(query, setting.getValue(), setting.getKey());
+            rows.add(new String[]{setting.getKey(), setting.getValue()});
         }
-        return result;
+        return batch(UPSERT, rows);
     }
 
     /**
@@ -201,13 +227,11 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
      */
     @Override
     public int delete(String... keys) {
-        String query = "DELETE FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(keys.length);
         for (String key : keys) {
-            result += query(query, key);
+            rows.add(new String[]{key});
         }
-        return result;
+        return batch(DELETE, rows);
     }
 
     /**
@@ -223,13 +247,9 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return false;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT " + SETTING_KEY + " FROM " + TABLE + " WHERE " + SETTING_KEY + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, EXISTS);
             statement.setString(1, key);
             resultSet = statement.executeQuery();
             return resultSet.next();
@@ -238,7 +258,6 @@ public class SettingDB extends SQLiteDatabase<Setting, String> {
             return false;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
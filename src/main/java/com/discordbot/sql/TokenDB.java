@@ -32,6 +32,18 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
     // drop table statement
     private static final String DROP_TABLE = "DROP TABLE IF EXISTS " + TOKEN;
 
+    // query statements
+    private static final String SELECT = "SELECT * FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
+    private static final String SELECT_ALL = "SELECT * FROM " + TOKEN;
+    private static final String INSERT = "INSERT INTO " + TOKEN +
+            " (" + TOKEN_TOKEN + "," + TOKEN_NAME + ")" +
+            "VALUES (?,?)";
+    private static final String UPDATE =
+            "UPDATE " + TOKEN + " SET " + TOKEN_NAME + " = ?" + " WHERE " + TOKEN_TOKEN + " = ?";
+    private static final String UPSERT = upsertQuery(TOKEN, TOKEN_TOKEN, TOKEN_NAME);
+    private static final String DELETE = "DELETE FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
+    private static final String EXISTS = "SELECT " + TOKEN_TOKEN + " FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
+
     /**
      * Default constructor
      */
@@ -80,13 +92,9 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT);
             statement.setString(1, token);
             resultSet = statement.executeQuery();
             if (resultSet.next()) {
@@ -98,7 +106,6 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -115,13 +122,9 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return null;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT * FROM " + TOKEN;
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, SELECT_ALL);
             resultSet = statement.executeQuery();
             List<Token> tokens = new ArrayList<>();
             while (resultSet.next()) {
@@ -133,7 +136,6 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return null;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -146,15 +148,11 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
      */
     @Override
     public int insert(Token... tokens) {
-        String query = "INSERT INTO " + TOKEN +
-                " (" + TOKEN_TOKEN + "," + TOKEN_NAME + ")" +
-                "VALUES (?,?)";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(tokens.length);
         for (Token token : tokens) {
-            result += query(query, token.getToken(), token.getName());
+            rows.add(new String[]{token.getToken(), token.getName()});
         }
-        return result;
+        return batch(INSERT, rows);
     }
 
     /**
@@ -165,13 +163,26 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
      */
     @Override
     public int update(Token... tokens) {
-        String query = "UPDATE " + TOKEN + " SET " + TOKEN_NAME + " = ?" + " WHERE " + TOKEN_TOKEN + " = ?";
+        List<String[]> rows = new ArrayList<>(tokens.length);
+        for (Token token : tokens) {
+            rows.add(new String[]{token.getName(), token.getToken()});
+        }
+        return batch(UPDATE, rows);
+    }
 
-        int result = 0;
+    /**
+     * Inserts one or more {@link Token}, or updates those whose token is already used.
+     *
+     * @param tokens The {@link Token}s to insert or update.
+     * @return the number of {@link Token}s inserted or updated.
+     */
+    @Override
+    public int upsert(Token... tokens) {
+        List<String[]> rows = new ArrayList<>(tokens.length);
         for (Token token : tokens) {
-            result += query(query, token.getName(), token.getToken());
+            rows.add(new String[]{token.getToken(), token.getName()});
         }
-        return result;
+        return batch(UPSERT, rows);
     }
 
     /**
@@ -182,13 +193,11 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
      */
     @Override
     public int delete(String... tokens) {
-        String query = "DELETE FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
-
-        int result = 0;
+        List<String[]> rows = new ArrayList<>(tokens.length);
         for (String token : tokens) {
-            result += query(query, token);
+            rows.add(new String[]{token});
         }
-        return result;
+        return batch(DELETE, rows);
     }
 
     /**
@@ -204,13 +213,9 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return false;
         }
 
-        PreparedStatement statement = null;
         ResultSet resultSet = null;
-
-        String query = "SELECT " + TOKEN_TOKEN + " FROM " + TOKEN + " WHERE " + TOKEN_TOKEN + " = ?";
-
         try {
-            statement = connection.prepareStatement(query);
+            PreparedStatement statement = connectionPool.prepareStatement(connection, EXISTS);
             statement.setString(1, token);
             resultSet = statement.executeQuery();
             return resultSet.next();
@@ -219,7 +224,6 @@ public class TokenDB extends SQLiteDatabase<Token, String> {
             return false;
         } finally {
             DBUtil.closeResultSet(resultSet);
-            DBUtil.closePreparedStatement(statement);
             connectionPool.freeConnection(connection);
         }
     }
@@ -0,0 +1,225 @@
+package com.discordbot.util;
+
+import net.dv8tion.jda.core.MessageBuilder;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.PrivateChannel;
+import net.dv8tion.jda.core.entities.TextChannel;
+import net.dv8tion.jda.core.entities.User;
+import net.dv8tion.jda.core.exceptions.PermissionException;
+import net.dv8tion.jda.core.utils.SimpleLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queues the actions taken against offending {@link Message}s so a raid costs a handful of requests instead of a few
+ * per message.
+ * <ul>
+ * <li>Deletes are collected per channel for {@link #DELETE_DELAY_MILLIS} and sent as bulk deletes of up to
+ * {@link #BULK_DELETE_LIMIT} messages, with a single notice in the channel naming every author.</li>
+ * <li>Private messages are sent by a pool of {@link #PRIVATE_MESSAGE_THREADS} threads from a queue holding at most
+ * {@link #PRIVATE_MESSAGE_QUEUE_SIZE} messages. Once the queue is full further private messages are dropped, since
+ * they are courtesy notices while the deletes are what matters.</li>
+ * <li>Opened {@link PrivateChannel}s are cached, so a repeat offender's channel is only opened once.</li>
+ * </ul>
+ */
+public class ModerationQueue {
+
+    /**
+     * The time in milliseconds deletes are collected for before they are sent
+     */
+    public static final long DELETE_DELAY_MILLIS = 250;
+    /**
+     * The most messages Discord deletes in one bulk delete
+     */
+    public static final int BULK_DELETE_LIMIT = 100;
+    /**
+     * The number of threads sending private messages
+     */
+    public static final int PRIVATE_MESSAGE_THREADS = 2;
+    /**
+     * The number of private messages that can wait to be sent
+     */
+    public static final int PRIVATE_MESSAGE_QUEUE_SIZE = 500;
+    /**
+     * The number of {@link PrivateChannel}s kept open
+     */
+    public static final int PRIVATE_CHANNEL_CACHE_SIZE = 1000;
+
+    private static final SimpleLog LOG = SimpleLog.getLog("ModerationQueue");
+
+    private final Map<String, Deletes> deletes = new ConcurrentHashMap<>();
+    private final Map<String, PrivateChannel> privateChannels = Collections.synchronizedMap(
+            new LinkedHashMap<String, PrivateChannel>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PrivateChannel> eldest) {
+                    return size() > PRIVATE_CHANNEL_CACHE_SIZE;
+                }
+            });
+    private final LongAdder droppedPrivateMessages = new LongAdder();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(threadFactory("ModerationQueue"));
+    private final ThreadPoolExecutor privateMessages = new ThreadPoolExecutor(PRIVATE_MESSAGE_THREADS,
+            PRIVATE_MESSAGE_THREADS, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(PRIVATE_MESSAGE_QUEUE_SIZE),
+            threadFactory("ModerationQueue-DM"), (task, executor) -> droppedPrivateMessages.increment());
+
+    /**
+     * Queues a {@link Message} in a guild to be deleted.
+     *
+     * @param message The {@link Message} to delete.
+     * @param notify  <tt>true</tt> to name the author in the notice sent to the channel after deleting, <tt>false</tt>
+     *                otherwise.
+     */
+    public void delete(Message message, boolean notify) {
+        TextChannel channel = message.getTextChannel();
+        Deletes pending = deletes.computeIfAbsent(channel.getId(), id -> new Deletes(channel));
+        boolean first;
+        synchronized (pending) {
+            first = pending.ids.isEmpty();
+            pending.ids.add(message.getId());
+            if (notify) {
+                pending.authors.add(message.getAuthor());
+            }
+        }
+        if (first) {
+            scheduler.schedule(() -> flush(pending), DELETE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the deletes collected for a channel. The channel is forgotten until its next delete, so only channels with
+     * deletes waiting are kept. A chunk that can't be deleted is logged and the other chunks are still deleted.
+     *
+     * @param pending The {@link Deletes} of the channel.
+     */
+    private void flush(Deletes pending) {
+        List<String> ids;
+        Set<User> authors;
+        synchronized (pending) {
+            ids = new ArrayList<>(pending.ids);
+            authors = new LinkedHashSet<>(pending.authors);
+            pending.ids.clear();
+            pending.authors.clear();
+            // a delete that still got hold of these Deletes finds them empty and schedules its own flush
+            deletes.remove(pending.channel.getId(), pending);
+        }
+
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += BULK_DELETE_LIMIT) {
+            List<String> chunk = ids.subList(from, Math.min(from + BULK_DELETE_LIMIT, ids.size()));
+            try {
+                // a bulk delete needs at least two messages
+                if (chunk.size() == 1) {
+                    pending.channel.deleteMessageById(chunk.get(0)).queue();
+                } else {
+                    pending.channel.deleteMessagesByIds(new ArrayList<>(chunk)).queue();
+                }
+                deleted += chunk.size();
+            } catch (PermissionException | IllegalArgumentException e) {
+                LOG.warn(e.getMessage());
+            }
+        }
+
+        if (deleted > 0 && !authors.isEmpty()) {
+            MessageBuilder builder = new MessageBuilder().append(deleted > 1 ? "Messages from " : "Message from ");
+            boolean separate = false;
+            for (User author : authors) {
+                if (separate) {
+                    builder.append(", ");
+                }
+                builder.append(author);
+                separate = true;
+            }
+            builder.append(deleted > 1 ? " deleted because they were naughty" : " deleted because it was naughty");
+            pending.channel.sendMessage(builder.build()).queue();
+        }
+    }
+
+    /**
+     * Queues a private message to a {@link User}. The message is dropped if too many private messages are waiting to be
+     * sent.
+     *
+     * @param user    The {@link User} to send the message to.
+     * @param message The {@link Message} to send.
+     */
+    public void sendPrivateMessage(User user, Message message) {
+        privateMessages.execute(() -> {
+            try {
+                getPrivateChannel(user).sendMessage(message).complete();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not send a private message to " + user.getName() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Accessor for the {@link PrivateChannel} of a {@link User}, opening it if it is not cached. Blocks while the
+     * channel is opened, so it is only called from the private message threads.
+     *
+     * @param user The {@link User}.
+     * @return the {@link PrivateChannel}.
+     */
+    private PrivateChannel getPrivateChannel(User user) {
+        PrivateChannel channel = privateChannels.get(user.getId());
+        if (channel == null) {
+            channel = user.hasPrivateChannel() ? user.getPrivateChannel() : user.openPrivateChannel().complete();
+            privateChannels.put(user.getId(), channel);
+        }
+        return channel;
+    }
+
+    /**
+     * Accessor for the number of private messages dropped because the queue was full.
+     *
+     * @return the number of dropped private messages.
+     */
+    public long getDroppedPrivateMessages() {
+        return droppedPrivateMessages.sum();
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} for daemon threads, so the ModerationQueue never keeps the application running.
+     *
+     * @param name The name of the threads.
+     * @return the {@link ThreadFactory}.
+     */
+    private static ThreadFactory threadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The deletes waiting to be sent for one channel.
+     */
+    private static class Deletes {
+
+        private final TextChannel channel;
+        private final List<String> ids = new ArrayList<>();
+        private final Set<User> authors = new LinkedHashSet<>();
+
+        /**
+         * @param channel The {@link TextChannel} the messages are in.
+         */
+        Deletes(TextChannel channel) {
+            this.channel = channel;
+        }
+
+    }
+
+}
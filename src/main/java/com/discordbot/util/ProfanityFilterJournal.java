@@ -0,0 +1,236 @@
+package com.discordbot.util;
+
+import com.discordbot.model.ProfanityFilter;
+import net.dv8tion.jda.core.utils.SimpleLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the blacklist of a {@link ProfanityFilter} as a base file with one word per line and an append-only journal
+ * of changes next to it. Each line of the journal is <tt>+word</tt> or <tt>-word</tt>.
+ * <p>
+ * Changes are buffered and appended to the journal in one write at most {@link #FLUSH_DELAY_MILLIS} after the first
+ * buffered change, so adding many words one by one costs one small append instead of a rewrite of the whole file per
+ * word. Once the journal holds more lines than {@link #COMPACT_MIN_ENTRIES} and than the base file, the blacklist is
+ * written to a new base file and the journal is emptied. On startup the base file is read and the journal is replayed
+ * on top of it before the blacklist is handed to the {@link ProfanityFilter} in a single batch. Replaying is
+ * idempotent, so a crash between writing the base file and emptying the journal loses nothing.
+ */
+public class ProfanityFilterJournal implements ProfanityFilter.ChangeListener {
+
+    /**
+     * The longest time a change stays in memory before it is written to the journal
+     */
+    public static final long FLUSH_DELAY_MILLIS = 500;
+    /**
+     * The number of lines the journal may hold before it is compacted into the base file, however small the base file
+     */
+    public static final int COMPACT_MIN_ENTRIES = 1000;
+
+    private static final SimpleLog LOG = SimpleLog.getLog("ProfanityFilterJournal");
+
+    private final Path base;
+    private final Path journal;
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ProfanityFilterJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<String> pending = new ArrayList<>();
+    private boolean scheduled = false;
+    private boolean closed = false;
+    private int journalEntries = 0;
+    private int baseEntries = 0;
+    private ProfanityFilter filter;
+
+    /**
+     * @param base The {@link Path} of the base file. The journal is kept next to it, with <tt>.journal</tt> appended
+     *             to its name.
+     */
+    public ProfanityFilterJournal(Path base) {
+        this.base = base;
+        this.journal = Paths.get(base.toString() + ".journal");
+    }
+
+    /**
+     * Loads the blacklist into a {@link ProfanityFilter} and starts journaling its changes.
+     *
+     * @param filter The {@link ProfanityFilter} to load the blacklist into.
+     * @throws IOException if the base file or the journal exist but could not be read.
+     */
+    public void load(ProfanityFilter filter) throws IOException {
+        Set<String> words = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String word : readLines(base)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+                baseEntries++;
+            }
+        }
+        for (String line : readLines(journal)) {
+            if (line.length() < 2) {
+                continue;
+            }
+            if (line.charAt(0) == '+') {
+                words.add(line.substring(1));
+            } else if (line.charAt(0) == '-') {
+                words.remove(line.substring(1));
+            }
+            journalEntries++;
+        }
+
+        if (!words.isEmpty()) {
+            filter.add(words.toArray(new String[words.size()]));
+        }
+        filter.setChangeListener(this);
+        synchronized (this) {
+            this.filter = filter;
+            if (closed) {
+                return;
+            }
+        }
+        if (needsCompaction()) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Buffers a change to the blacklist for the journal. Changes made after the journal was closed are logged and not
+     * persisted.
+     *
+     * @param filter The {@link ProfanityFilter} that changed.
+     * @param type   The {@link ProfanityFilter.ChangeType} that occurred.
+     * @param words  The word or words that changed.
+     */
+    @Override
+    public synchronized void onChange(ProfanityFilter filter, ProfanityFilter.ChangeType type, String... words) {
+        if (closed) {
+            LOG.warn("The journal is closed, not persisting " + type + " of " + String.join(", ", words));
+            return;
+        }
+        char operation = type == ProfanityFilter.ChangeType.ADD ? '+' : '-';
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                pending.add(operation + word);
+            }
+        }
+        if (!scheduled && !pending.isEmpty()) {
+            scheduled = true;
+            flusher.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the buffered changes to the journal, then compacts the journal if it has grown too long.
+     */
+    public void flush() {
+        List<String> lines;
+        ProfanityFilter filter;
+        synchronized (this) {
+            lines = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+            filter = this.filter;
+        }
+
+        synchronized (writeLock) {
+            try {
+                if (!lines.isEmpty()) {
+                    Files.write(journal, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+                    journalEntries += lines.size();
+                }
+                if (filter != null && needsCompaction()) {
+                    compact(filter.asList());
+                }
+            } catch (IOException e) {
+                LOG.log(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered changes and stops journaling. Changes made afterwards are not persisted.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Checks if the journal has grown long enough to be compacted.
+     *
+     * @return <tt>true</tt> if the journal should be compacted, <tt>false</tt> otherwise.
+     */
+    private boolean needsCompaction() {
+        return journalEntries > COMPACT_MIN_ENTRIES && journalEntries > baseEntries;
+    }
+
+    /**
+     * Replaces the base file with the blacklist and empties the journal. The base file is written to a temporary file
+     * first and moved into place, so it is never left half written.
+     *
+     * @param words The words of the blacklist.
+     * @throws IOException if the base file or the journal could not be written.
+     */
+    private void compact(List<String> words) throws IOException {
+        Path temporary = Paths.get(base.toString() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (String word : words) {
+                writer.write(word);
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.write(journal, new byte[0]);
+        baseEntries = words.size();
+        journalEntries = 0;
+        LOG.info("Compacted " + base.getFileName() + " to " + words.size() + " words");
+    }
+
+    /**
+     * Reads the lines of a file.
+     *
+     * @param path The {@link Path} of the file.
+     * @return the lines of the file, or an empty {@link List} if the file does not exist.
+     * @throws IOException if the file exists but could not be read.
+     */
+    private static List<String> readLines(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (NoSuchFileException e) {
+            LOG.warn(path.getFileName() + " not found");
+        }
+        return lines;
+    }
+
+}
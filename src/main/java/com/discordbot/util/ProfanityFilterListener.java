@@ -1,23 +1,21 @@
 package com.discordbot.util;
 
-import com.discordbot.command.CommandListener;
-import com.discordbot.command.CommandReceivedEvent;
+import com.discordbot.command.CommandHandler;
 import com.discordbot.model.ProfanityFilter;
 import net.dv8tion.jda.core.MessageBuilder;
+import net.dv8tion.jda.core.Permission;
 import net.dv8tion.jda.core.entities.ChannelType;
 import net.dv8tion.jda.core.entities.Message;
-import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
-import net.dv8tion.jda.core.exceptions.PermissionException;
 import net.dv8tion.jda.core.hooks.ListenerAdapter;
 import net.dv8tion.jda.core.utils.SimpleLog;
 
-import java.security.InvalidKeyException;
 import java.util.List;
 
 /**
  * An implementation of {@link ListenerAdapter} that filters {@link MessageReceivedEvent}s for profanity and removes
- * offending {@link Message}s.
+ * offending {@link Message}s. The deletes and replies go through a {@link ModerationQueue}, and the reply settings are
+ * kept in memory, so handling an offending {@link Message} never blocks the JDA event thread.
  *
  * @see ListenerAdapter
  */
@@ -38,80 +36,114 @@ public class ProfanityFilterListener extends ListenerAdapter {
 
     private static final SimpleLog LOG = SimpleLog.getLog("ProfanityFilterListener");
 
-    private ProfanityFilter filter;
+    private final ProfanityFilter filter;
+    private final CommandHandler commandHandler;
+    private final ModerationQueue moderation = new ModerationQueue();
+
+    private volatile boolean replyGuild = false;
+    private volatile boolean replyPrivate = false;
 
     /**
      * @param filter The {@link ProfanityFilter} to use for filtering messages.
      */
     public ProfanityFilterListener(ProfanityFilter filter) {
+        this(filter, null);
+    }
+
+    /**
+     * @param filter         The {@link ProfanityFilter} to use for filtering messages.
+     * @param commandHandler The {@link CommandHandler} deciding which commands are exempt from the
+     *                       {@link ProfanityFilter}, or <tt>null</tt> to filter every {@link Message}.
+     */
+    public ProfanityFilterListener(ProfanityFilter filter, CommandHandler commandHandler) {
         this.filter = filter;
+        this.commandHandler = commandHandler;
+    }
+
+    /**
+     * Mutator for replying in the guild when a {@link Message} is deleted, mirroring {@link #SETTING_REPLY_GUILD}.
+     *
+     * @param replyGuild <tt>true</tt> to reply in the guild, <tt>false</tt> otherwise.
+     */
+    public void setReplyGuild(boolean replyGuild) {
+        this.replyGuild = replyGuild;
+    }
+
+    /**
+     * Mutator for replying in private when a {@link Message} is deleted, mirroring {@link #SETTING_REPLY_PRIVATE}.
+     *
+     * @param replyPrivate <tt>true</tt> to reply in private, <tt>false</tt> otherwise.
+     */
+    public void setReplyPrivate(boolean replyPrivate) {
+        this.replyPrivate = replyPrivate;
     }
 
     /**
-     * Handles a {@link MessageReceivedEvent} by creating a {@link CommandReceivedEvent} and pushing it to the
-     * registered {@link CommandListener}s.
+     * Accessor for the {@link ModerationQueue} acting on offending {@link Message}s.
+     *
+     * @return the {@link ModerationQueue}.
+     */
+    public ModerationQueue getModerationQueue() {
+        return moderation;
+    }
+
+    /**
+     * Handles a {@link MessageReceivedEvent} by checking {@link Message}s sent in guilds for profanity and calling
+     * {@link #onProfanity(MessageReceivedEvent, List)} for offending {@link Message}s. A {@link Message} already
+     * checked by the {@link CommandHandler} is not scanned again, and commands the {@link CommandHandler} exempts from
+     * the {@link ProfanityFilter} are not filtered at all.
      *
      * @param event The {@link MessageReceivedEvent} to handle.
      */
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
-        if (event.getChannelType().equals(ChannelType.TEXT)) {
+        if (event.getChannelType().equals(ChannelType.TEXT) && !event.getAuthor().isBot()
+                && (commandHandler == null || !commandHandler.isExempt(event))) {
             Message message = event.getMessage();
-            User author = event.getAuthor();
-
-            List<String> words;
-            if (!event.getAuthor().isBot() && !(words = filter.filter(message.getContent())).isEmpty() ) {
-                // delete the message
-                try {
-                    message.delete().queue();
-                } catch (PermissionException | IllegalStateException e) {
-                    LOG.warn(e.getMessage());
-                    return;
-                }
+            List<ProfanityFilter.Match> matches =
+                    filter.filter(event.getGuild().getId(), message.getId(), message.getContent());
+            if (!matches.isEmpty()) {
+                onProfanity(event, matches);
+            }
+        }
+    }
 
-                // reply in guild if enabled
-                try {
-                    if (SettingHandler.getBoolean(SETTING_REPLY_GUILD)) {
-                        event.getChannel().sendMessage(
-                                new MessageBuilder()
-                                        .append("Message from ")
-                                        .append(author)
-                                        .append(" deleted because it was naughty")
-                                        .build())
-                                .queue();
-                    }
-                } catch (InvalidKeyException e) {
-                    SettingHandler.setBoolean(SETTING_REPLY_GUILD, false);
-                }
+    /**
+     * Acts on a {@link Message} containing profanity by queueing it to be deleted and queueing replies in the guild and
+     * in private if those replies are enabled. The private reply names the rule of the blacklist behind each word that
+     * did not match a plain word. Nothing is done if the bot can't delete messages in the channel.
+     *
+     * @param event   The {@link MessageReceivedEvent} of the offending {@link Message}.
+     * @param matches The {@link ProfanityFilter.Match}es of the profane words found in the {@link Message}.
+     */
+    protected void onProfanity(MessageReceivedEvent event, List<ProfanityFilter.Match> matches) {
+        if (!event.getGuild().getSelfMember().hasPermission(event.getTextChannel(), Permission.MESSAGE_MANAGE)) {
+            LOG.warn("Cannot delete messages in channel " + event.getChannel().getName() + " on "
+                    + event.getGuild().getName());
+            return;
+        }
+
+        // delete the message, replying in guild if enabled
+        moderation.delete(event.getMessage(), replyGuild);
 
-                // reply in private if enabled
-                try {
-                    if (SettingHandler.getBoolean(SETTING_REPLY_PRIVATE)) {
-                        MessageBuilder messageBuilder = new MessageBuilder();
-                        messageBuilder.append(words.size() > 1 ? "The words " : "The word ");
-                        words.forEach(word -> messageBuilder.append(word).append(" "));
-                        messageBuilder
-                                .append(words.size() > 1 ? "are " : "is ")
-                                .append("not allowed in channel ")
-                                .append(event.getChannel().getName())
-                                .append(" on ")
-                                .append(event.getGuild().getName());
-
-                        // if we don't have a private channel open, we will have to open a new one
-                        if (author.hasPrivateChannel()) {
-                            author.getPrivateChannel().sendMessage(messageBuilder.build()).queue();
-                        } else {
-                            // best to do on new thread since we have to wait for private channel to be opened
-                            new Thread(() -> {
-                                author.openPrivateChannel().complete();
-                                author.getPrivateChannel().sendMessage(messageBuilder.build()).queue();
-                            }).start();
-                        }
-                    }
-                } catch (InvalidKeyException e) {
-                    SettingHandler.setBoolean(SETTING_REPLY_PRIVATE, false);
+        // reply in private if enabled
+        if (replyPrivate) {
+            MessageBuilder messageBuilder = new MessageBuilder();
+            messageBuilder.append(matches.size() > 1 ? "The words " : "The word ");
+            for (ProfanityFilter.Match match : matches) {
+                messageBuilder.append(match.getWord());
+                if (!match.getRule().equals(match.getWord())) {
+                    messageBuilder.append(" (rule ").append(match.getRule()).append(")");
                 }
+                messageBuilder.append(" ");
             }
+            messageBuilder
+                    .append(matches.size() > 1 ? "are " : "is ")
+                    .append("not allowed in channel ")
+                    .append(event.getChannel().getName())
+                    .append(" on ")
+                    .append(event.getGuild().getName());
+            moderation.sendPrivateMessage(event.getAuthor(), messageBuilder.build());
         }
     }
 
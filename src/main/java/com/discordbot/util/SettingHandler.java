@@ -2,18 +2,65 @@ package com.discordbot.util;
 
 import com.discordbot.model.Setting;
 import com.discordbot.sql.SettingDB;
+import net.dv8tion.jda.core.utils.SimpleLog;
 
 import java.security.InvalidKeyException;
 import java.util.ArrayList;
 import java.util.IllegalFormatException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A handler for getting and setting {@link Setting} in the {@link SettingDB} database.
+ * <p>
+ * Every {@link Setting} is loaded into memory on first use, and gets are served from memory without touching the
+ * database. How sets reach the database depends on the {@link Durability}: with {@link Durability#WRITE_BEHIND} they
+ * are buffered and written by a background writer in one batch at most {@link #FLUSH_DELAY_MILLIS} after the first
+ * buffered set, several sets of the same key costing one write. {@link #close()} writes what is still buffered. The
+ * {@link Durability} is kept as the {@link Setting} {@link #SETTING_DURABILITY}.
  */
 public final class SettingHandler {
 
+    /**
+     * Setting key for the {@link Durability} of sets
+     */
+    public static final String SETTING_DURABILITY = "setting_durability";
+    /**
+     * The time in milliseconds a buffered set waits before it is written to the database
+     */
+    public static final long FLUSH_DELAY_MILLIS = 1000;
+
+    private static final SimpleLog LOG = SimpleLog.getLog("SettingHandler");
+
     private static SettingDB database = new SettingDB();
+    private static final Map<String, String> settings = new ConcurrentHashMap<>();
+    private static final Map<String, String> pending = new ConcurrentHashMap<>();
+    private static final Object writeLock = new Object();
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SettingHandler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile Durability durability = Durability.WRITE_BEHIND;
+    private static volatile boolean loaded = false;
+    private static boolean scheduled = false;
+    private static boolean closed = false;
+
+    static {
+        load();
+        String stored = settings.get(SETTING_DURABILITY);
+        if (stored != null) {
+            try {
+                durability = Durability.valueOf(stored);
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Unknown durability " + stored + ", using " + durability);
+            }
+        }
+    }
 
     private static List<ChangeListener<String>> stringListenrers = new ArrayList<>();
     private static List<ChangeListener<Double>> doubleListeners = new ArrayList<>();
@@ -27,11 +74,7 @@ public final class SettingHandler {
      * @param value The value of the {@link Setting} to set.
      */
     public static void setString(String key, String value) {
-        if (database.exists(key)) {
-            database.update(new Setting(key, value));
-        } else {
-            database.insert(new Setting(key, value));
-        }
+        put(key, value);
         for (ChangeListener<String> listener : stringListenrers) {
             listener.onChange(key, value);
         }
@@ -44,11 +87,8 @@ public final class SettingHandler {
      * @throws InvalidKeyException if the key does not exist.
      */
     public static String getString(String key) throws InvalidKeyException {
-        Setting result = database.select(key);
-        if (result == null) {
-            throw new InvalidKeyException("Setting " + key + " does not exist");
-        }
-        return result.getValue();
+        String result = get(key);
+        return result;
     }
 
     /**
@@ -58,11 +98,7 @@ public final class SettingHandler {
      * @param value The value of the {@link Setting} to set.
      */
     public static void setDouble(String key, double value) {
-        if (database.exists(key)) {
-            database.update(new Setting(key, Double.toString(value)));
-        } else {
-            database.insert(new Setting(key, Double.toString(value)));
-        }
+        put(key, Double.toString(value));
         for (ChangeListener<Double> listener : doubleListeners) {
             listener.onChange(key, value);
         }
@@ -75,11 +111,8 @@ public final class SettingHandler {
      * @throws InvalidKeyException if the key does not exist.
      */
     public static double getDouble(String key) throws InvalidKeyException, IllegalFormatException {
-        Setting result = database.select(key);
-        if (result == null) {
-            throw new InvalidKeyException("Setting " + key + " does not exist");
-        }
-        return Double.parseDouble(result.getValue());
+        String result = get(key);
+        return Double.parseDouble(result);
     }
 
     /**
@@ -89,11 +122,7 @@ public final class SettingHandler {
      * @param value The value of the {@link Setting} to set.
      */
     public static void setInt(String key, int value) {
-        if (database.exists(key)) {
-            database.update(new Setting(key, Integer.toString(value)));
-        } else {
-            database.insert(new Setting(key, Integer.toString(value)));
-        }
+        put(key, Integer.toString(value));
         for (ChangeListener<Integer> listener : integerListeners) {
             listener.onChange(key, value);
         }
@@ -106,11 +135,8 @@ public final class SettingHandler {
      * @throws InvalidKeyException if the key does not exist.
      */
     public static int getInt(String key) throws InvalidKeyException, IllegalFormatException {
-        Setting result = database.select(key);
-        if (result == null) {
-            throw new InvalidKeyException("Setting " + key + " does not exist");
-        }
-        return Integer.parseInt(result.getValue());
+        String result = get(key);
+        return Integer.parseInt(result);
     }
 
     /**
@@ -120,11 +146,7 @@ public final class SettingHandler {
      * @param value The value of the {@link Setting} to set.
      */
     public static void setBoolean(String key, boolean value) {
-        if (database.exists(key)) {
-            database.update(new Setting(key, Boolean.toString(value)));
-        } else {
-            database.insert(new Setting(key, Boolean.toString(value)));
-        }
+        put(key, Boolean.toString(value));
         for (ChangeListener<Boolean> listener : booleanListeners) {
             listener.onChange(key, value);
         }
@@ -137,11 +159,143 @@ public final class SettingHandler {
      * @throws InvalidKeyException if the key does not exist.
      */
     public static boolean getBoolean(String key) throws InvalidKeyException, IllegalFormatException {
-        Setting result = database.select(key);
+        String result = get(key);
+        return Boolean.parseBoolean(result);
+    }
+
+    /**
+     * Accessor for the {@link Durability} of sets.
+     *
+     * @return the {@link Durability}.
+     */
+    public static Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Mutator for the {@link Durability} of sets, which is stored as {@link #SETTING_DURABILITY}. Switching to
+     * {@link Durability#WRITE_THROUGH} writes the buffered sets right away.
+     *
+     * @param durability The {@link Durability}.
+     */
+    public static void setDurability(Durability durability) {
+        SettingHandler.durability = durability;
+        put(SETTING_DURABILITY, durability.name());
+    }
+
+    /**
+     * Writes the buffered sets to the database. Sets that could not be written stay buffered and are tried again.
+     */
+    public static void flush() {
+        synchronized (SettingHandler.class) {
+            scheduled = false;
+        }
+
+        synchronized (writeLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Setting> batch = new ArrayList<>(pending.size());
+            pending.forEach((key, value) -> batch.add(new Setting(key, value)));
+            if (database.upsert(batch.toArray(new Setting[batch.size()])) == 0) {
+                LOG.warn("Could not write " + batch.size() + " settings, trying again later");
+                schedule();
+                return;
+            }
+            for (Setting setting : batch) {
+                // a key set again while writing stays buffered with its newer value
+                pending.remove(setting.getKey(), setting.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered sets and stops the background writer. Sets made afterwards are written right away.
+     */
+    public static void close() {
+        synchronized (SettingHandler.class) {
+            closed = true;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Loads every {@link Setting} from the database into memory, keeping the ones already set in memory.
+     *
+     * @return <tt>true</tt> if the {@link Setting}s were loaded, <tt>false</tt> otherwise.
+     */
+    private static boolean load() {
+        List<Setting> result = database.selectAll();
         if (result == null) {
+            LOG.warn("Could not load the settings, trying again on next get");
+            return false;
+        }
+        for (Setting setting : result) {
+            settings.putIfAbsent(setting.getKey(), setting.getValue());
+        }
+        loaded = true;
+        return true;
+    }
+
+    /**
+     * Gets the value of a {@link Setting} from memory. Loads the {@link Setting}s first if they could not be loaded
+     * before, so a {@link Setting} is not taken as missing because the database was unavailable.
+     *
+     * @param key The key of the {@link Setting} to get.
+     * @return the value of the {@link Setting}.
+     * @throws InvalidKeyException if the key does not exist.
+     */
+    private static String get(String key) throws InvalidKeyException {
+        String value = settings.get(key);
+        if (value == null && !loaded && load()) {
+            value = settings.get(key);
+        }
+        if (value == null) {
             throw new InvalidKeyException("Setting " + key + " does not exist");
         }
-        return Boolean.parseBoolean(result.getValue());
+        return value;
+    }
+
+    /**
+     * Sets the value of a {@link Setting} in memory and writes it to the database according to the
+     * {@link Durability}.
+     *
+     * @param key   The key of the {@link Setting} to set.
+     * @param value The value of the {@link Setting} to set.
+     */
+    private static void put(String key, String value) {
+        settings.put(key, value);
+        pending.put(key, value);
+        if (durability == Durability.WRITE_THROUGH || isClosed()) {
+            flush();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Schedules the background writer to {@link #flush()}, unless it is already scheduled or has been closed.
+     */
+    private static synchronized void schedule() {
+        if (!scheduled && !closed) {
+            scheduled = true;
+            writer.schedule(SettingHandler::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Checks if the background writer has been closed.
+     *
+     * @return <tt>true</tt> if it has been closed, <tt>false</tt> otherwise.
+     */
+    private static synchronized boolean isClosed() {
+        return closed;
     }
 
     /**
@@ -216,6 +370,21 @@ public final class SettingHandler {
         booleanListeners.remove(listener);
     }
 
+    /**
+     * How sets are written to the database.
+     */
+    public enum Durability {
+        /**
+         * Every set is written before it returns.
+         */
+        WRITE_THROUGH,
+        /**
+         * Sets are buffered and written together by a background writer. A crash can lose the sets of the last
+         * {@link #FLUSH_DELAY_MILLIS}.
+         */
+        WRITE_BEHIND
+    }
+
     /**
      * Handles changes to settings.
      */
@@ -0,0 +1,353 @@
+package com.discordbot.replay;
+
+import com.discordbot.command.Command;
+import com.discordbot.command.CommandExecutor;
+import com.discordbot.command.CommandHandler;
+import com.discordbot.command.CommandListener;
+import com.discordbot.command.CommandReceivedEvent;
+import com.discordbot.command.CommandTokenizer;
+import com.discordbot.model.ProfanityFilter;
+import com.discordbot.util.LatencyHistogram;
+import com.discordbot.util.ProfanityFilterListener;
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded trace of messages through a {@link CommandHandler} and a {@link ProfanityFilterListener} without
+ * a connection to Discord, and reports the throughput, handling latency and allocation rate of the dispatch path.
+ * <p>
+ * Usage: <tt>ReplayHarness &lt;trace&gt; [--rate events/s] [--repeat passes] [--warmup passes] [--words file]</tt>
+ * <p>
+ * The trace is read with {@link TraceEvent#read(Path)}. Every tag used with the default prefix in the trace is
+ * registered to a no-op {@link CommandListener}, so the whole pipeline runs but the commands do nothing, and offending
+ * messages are counted instead of deleted. With a rate of 0 the events are replayed as fast as possible; otherwise
+ * they are paced and the latency is measured from the time each event was due, so a handler that falls behind shows up
+ * in the percentiles. Allocation is measured on the replay thread, which is where JDA would call the listeners.
+ */
+public class ReplayHarness {
+
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final List<TraceEvent> trace;
+    private final SyntheticEvents events = new SyntheticEvents();
+    private final CommandHandler commandHandler;
+    private final ProfanityFilterListener profanityListener;
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder profanities = new LongAdder();
+    private final LatencyHistogram handlerLatency = new LatencyHistogram();
+    private final LatencyHistogram profanityLatency = new LatencyHistogram();
+    private final LatencyHistogram eventLatency = new LatencyHistogram();
+
+    private long messageId = 0;
+    private long errors = 0;
+
+    /**
+     * @param trace  The {@link TraceEvent}s to replay.
+     * @param filter The {@link ProfanityFilter} to check messages against.
+     */
+    public ReplayHarness(List<TraceEvent> trace, ProfanityFilter filter) {
+        this.trace = trace;
+
+        commandHandler = new CommandHandler(filter).enableProfanityFilter(true);
+        for (String tag : getTags(trace)) {
+            commandHandler.addCommandListener(tag, new ReplayCommand(commands));
+        }
+
+        profanityListener = new ProfanityFilterListener(filter, commandHandler) {
+            @Override
+            protected void onProfanity(MessageReceivedEvent event, List<ProfanityFilter.Match> matches) {
+                profanities.increment();
+            }
+        };
+    }
+
+    /**
+     * Runs the harness.
+     *
+     * @param args The command line arguments.
+     * @throws IOException          if the trace or the word list could not be read.
+     * @throws InterruptedException if interrupted while the word list is compiled.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path tracePath = null;
+        double rate = 0;
+        int repeat = 10;
+        int warmup = 3;
+        ProfanityFilter filter = new ProfanityFilter();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "--repeat":
+                    repeat = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--words":
+                    for (String word : Files.readAllLines(Paths.get(args[++i]), StandardCharsets.UTF_8)) {
+                        if (!word.trim().isEmpty()) {
+                            filter.add(word.trim());
+                        }
+                    }
+                    break;
+                default:
+                    tracePath = Paths.get(args[i]);
+            }
+        }
+        if (tracePath == null) {
+            System.err.println("Usage: ReplayHarness <trace> [--rate events/s] [--repeat passes] [--warmup passes]"
+                    + " [--words file]");
+            System.exit(1);
+        }
+
+        filter.awaitCompilation();
+
+        List<TraceEvent> trace = TraceEvent.read(tracePath);
+        if (trace.isEmpty()) {
+            System.err.println(tracePath + " contains no events");
+            System.exit(1);
+        }
+
+        ReplayHarness harness = new ReplayHarness(trace, filter);
+        try {
+            for (int i = 0; i < warmup; i++) {
+                harness.replay(rate);
+            }
+            harness.reset();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long allocated = getAllocatedBytes(threads);
+            long start = System.nanoTime();
+            for (int i = 0; i < repeat; i++) {
+                harness.replay(rate);
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated = getAllocatedBytes(threads) - allocated;
+
+            harness.awaitCommands();
+            harness.report((long) repeat * trace.size(), elapsed, allocated);
+        } finally {
+            harness.shutdown();
+        }
+    }
+
+    /**
+     * Replays the trace once. The {@link MessageReceivedEvent}s are built before the clock starts, so building them
+     * is not measured.
+     *
+     * @param rate The number of events per second, or 0 to replay as fast as possible.
+     */
+    private void replay(double rate) {
+        MessageReceivedEvent[] pass = new MessageReceivedEvent[trace.size()];
+        for (int i = 0; i < pass.length; i++) {
+            pass[i] = events.create(trace.get(i), Long.toString(++messageId));
+        }
+
+        long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < pass.length; i++) {
+            long due = start + i * interval;
+            if (interval > 0) {
+                await(due);
+            } else {
+                due = System.nanoTime();
+            }
+
+            long handlerStart = System.nanoTime();
+            try {
+                commandHandler.onMessageReceived(pass[i]);
+            } catch (RuntimeException e) {
+                // replies go to the stand-ins, which have no RestActions to queue
+                errors++;
+            }
+            long profanityStart = System.nanoTime();
+            try {
+                profanityListener.onMessageReceived(pass[i]);
+            } catch (RuntimeException e) {
+                errors++;
+            }
+            long end = System.nanoTime();
+
+            handlerLatency.record(profanityStart - handlerStart);
+            profanityLatency.record(end - profanityStart);
+            eventLatency.record(end - due);
+        }
+    }
+
+    /**
+     * Waits until a point in time, parking while it is far away and spinning for the last stretch.
+     *
+     * @param due The time to wait for from {@link System#nanoTime()}.
+     */
+    private static void await(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Waits for the queued commands to finish, so the command counts in the report are complete.
+     */
+    private void awaitCommands() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            boolean idle = true;
+            for (CommandExecutor.Stats stats : commandHandler.getExecutor().getStats().values()) {
+                if (stats.getActive() > 0 || stats.getQueued() > 0) {
+                    idle = false;
+                    break;
+                }
+            }
+            if (idle) {
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Clears the counters and histograms after the warm up.
+     */
+    private void reset() {
+        commands.reset();
+        profanities.reset();
+        handlerLatency.reset();
+        profanityLatency.reset();
+        eventLatency.reset();
+        commandHandler.getMetrics().reset();
+        errors = 0;
+    }
+
+    /**
+     * Prints the results.
+     *
+     * @param count     The number of events replayed.
+     * @param elapsed   The time the replay took in nanoseconds.
+     * @param allocated The number of bytes allocated on the replay thread, or a negative number if unknown.
+     */
+    private void report(long count, long elapsed, long allocated) {
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("events:      %d in %.3f s (%.0f events/s)%n", count, seconds, count / seconds);
+        System.out.printf("commands:    %d run, %d messages with profanity, %d errors%n", commands.sum(),
+                profanities.sum(), errors);
+        print("handler", handlerLatency);
+        print("profanity", profanityLatency);
+        print("event", eventLatency);
+        if (allocated >= 0) {
+            System.out.printf("allocation:  %.0f B/event (%.1f MB/s)%n", allocated / (double) count,
+                    allocated / seconds / (1024 * 1024));
+        } else {
+            System.out.println("allocation:  not supported by this JVM");
+        }
+    }
+
+    /**
+     * Prints the percentiles of a {@link LatencyHistogram} in microseconds.
+     *
+     * @param name      The name to print the {@link LatencyHistogram} under.
+     * @param histogram The {@link LatencyHistogram} to print.
+     */
+    private static void print(String name, LatencyHistogram histogram) {
+        System.out.printf("%-12s p50 %.1f us, p99 %.1f us, max %.1f us%n", name + ":",
+                histogram.getPercentile(50) / 1000.0, histogram.getPercentile(99) / 1000.0,
+                histogram.getMax() / 1000.0);
+    }
+
+    /**
+     * Shuts down the threads of the {@link CommandHandler}.
+     */
+    private void shutdown() {
+        commandHandler.getExecutor().shutdown();
+        commandHandler.getRateLimiter().shutdown();
+    }
+
+    /**
+     * Accessor for the number of bytes allocated by the current thread.
+     *
+     * @param threads The {@link ThreadMXBean} of the JVM.
+     * @return the number of bytes, or -1 if the JVM can't measure allocation.
+     */
+    private static long getAllocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects the tags used with the default prefix in a trace.
+     *
+     * @param trace The {@link TraceEvent}s to collect the tags from.
+     * @return the {@link Set} of tags in the order they first appear.
+     */
+    private static Set<String> getTags(List<TraceEvent> trace) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (TraceEvent event : trace) {
+            String content = event.getContent();
+            if (content.startsWith(CommandReceivedEvent.PREFIX)) {
+                int tagStart = CommandTokenizer.tagStart(content, CommandReceivedEvent.PREFIX.length());
+                int tagEnd = CommandTokenizer.tagEnd(content, tagStart);
+                if (tagEnd > tagStart) {
+                    tags.add(content.substring(tagStart, tagEnd));
+                }
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * A {@link CommandListener} that only counts the commands it receives. Its lane is wide and deep so the replay
+     * measures dispatch rather than rejections.
+     */
+    @Command(tag = "replay", concurrency = 4, queueSize = 65536)
+    private static class ReplayCommand extends CommandListener {
+
+        private final LongAdder count;
+
+        /**
+         * @param count The counter to increment for each command.
+         */
+        ReplayCommand(LongAdder count) {
+            this.count = count;
+        }
+
+        @Override
+        protected void onCommandReceived(CommandReceivedEvent event, CommandHandler handler) {
+            count.increment();
+        }
+
+        @Override
+        public String getDescription() {
+            return "Counts replayed commands.";
+        }
+
+        @Override
+        public String getHelp() {
+            return "Used by the ReplayHarness.";
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.discordbot.replay;
+
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.ChannelType;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.MessageChannel;
+import net.dv8tion.jda.core.entities.PrivateChannel;
+import net.dv8tion.jda.core.entities.TextChannel;
+import net.dv8tion.jda.core.entities.User;
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds {@link MessageReceivedEvent}s from {@link TraceEvent}s without a connection to Discord. The JDA entities are
+ * {@link Proxy} stand-ins that answer the getters the handlers use. Methods that would talk to Discord, such as sending
+ * or deleting messages, return <tt>null</tt>. Users, guilds, members and channels are cached by id, like JDA does, so
+ * replaying a trace reuses them, and can be looked up from the command threads.
+ */
+public class SyntheticEvents {
+
+    private final JDA jda = proxy(JDA.class, new HashMap<>());
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Guild> guilds = new ConcurrentHashMap<>();
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+    private final Map<String, MessageChannel> channels = new ConcurrentHashMap<>();
+
+    private long responseNumber = 0;
+
+    /**
+     * Builds a {@link MessageReceivedEvent}.
+     *
+     * @param trace     The {@link TraceEvent} to build the {@link MessageReceivedEvent} from.
+     * @param messageId The id to give the {@link Message}.
+     * @return the {@link MessageReceivedEvent}.
+     */
+    public MessageReceivedEvent create(TraceEvent trace, String messageId) {
+        User author = getUser(trace.getAuthorId());
+        Guild guild = trace.getGuildId() == null ? null : getGuild(trace.getGuildId());
+        MessageChannel channel = getChannel(trace.getChannelType(), trace.getChannelId(), guild);
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("getId", messageId);
+        message.put("getContent", trace.getContent());
+        message.put("getRawContent", trace.getContent());
+        message.put("getStrippedContent", trace.getContent());
+        message.put("getAuthor", author);
+        message.put("getChannel", channel);
+        message.put("getChannelType", trace.getChannelType());
+        message.put("getGuild", guild);
+        message.put("getJDA", jda);
+        message.put("getMentionedUsers", Collections.emptyList());
+        message.put("isFromType", (Answer) args -> args[0] == trace.getChannelType());
+        if (channel instanceof TextChannel) {
+            message.put("getTextChannel", channel);
+        } else if (channel instanceof PrivateChannel) {
+            message.put("getPrivateChannel", channel);
+        }
+
+        return new MessageReceivedEvent(jda, responseNumber++, proxy(Message.class, message));
+    }
+
+    /**
+     * Accessor for the stand-in {@link User} of an id.
+     *
+     * @param id The id of the {@link User}.
+     * @return the {@link User}.
+     */
+    private User getUser(String id) {
+        return users.computeIfAbsent(id, key -> {
+            Map<String, Object> user = new HashMap<>();
+            user.put("getId", key);
+            user.put("getName", "user" + key);
+            user.put("getAsMention", "<@" + key + ">");
+            return proxy(User.class, user);
+        });
+    }
+
+    /**
+     * Accessor for the stand-in {@link Guild} of an id.
+     *
+     * @param id The id of the {@link Guild}.
+     * @return the {@link Guild}.
+     */
+    private Guild getGuild(String id) {
+        return guilds.computeIfAbsent(id, key -> {
+            Map<String, Object> values = new HashMap<>();
+            values.put("getId", key);
+            values.put("getName", "guild" + key);
+            Guild guild = proxy(Guild.class, values);
+            values.put("getMember", (Answer) args -> getMember(guild, (User) args[0]));
+            return guild;
+        });
+    }
+
+    /**
+     * Accessor for the stand-in {@link Member} of a {@link User} in a {@link Guild}. Members have every permission.
+     *
+     * @param guild The {@link Guild}.
+     * @param user  The {@link User}.
+     * @return the {@link Member}.
+     */
+    private Member getMember(Guild guild, User user) {
+        return members.computeIfAbsent(guild.getId() + ":" + user.getId(), key -> {
+            Map<String, Object> member = new HashMap<>();
+            member.put("getUser", user);
+            member.put("getGuild", guild);
+            member.put("getEffectiveName", user.getName());
+            member.put("getAsMention", user.getAsMention());
+            member.put("hasPermission", (Answer) args -> true);
+            return proxy(Member.class, member);
+        });
+    }
+
+    /**
+     * Accessor for the stand-in {@link MessageChannel} of an id.
+     *
+     * @param type  The {@link ChannelType} of the channel.
+     * @param id    The id of the channel.
+     * @param guild The {@link Guild} of the channel, or <tt>null</tt> if it is not in a {@link Guild}.
+     * @return the {@link MessageChannel}.
+     */
+    private MessageChannel getChannel(ChannelType type, String id, Guild guild) {
+        return channels.computeIfAbsent(id, key -> {
+            Map<String, Object> channel = new HashMap<>();
+            channel.put("getId", key);
+            channel.put("getName", "channel" + key);
+            channel.put("getType", type);
+            channel.put("getGuild", guild);
+            channel.put("getJDA", jda);
+            if (type == ChannelType.TEXT) {
+                return proxy(TextChannel.class, channel);
+            } else if (type == ChannelType.PRIVATE) {
+                return proxy(PrivateChannel.class, channel);
+            }
+            return proxy(MessageChannel.class, channel);
+        });
+    }
+
+    /**
+     * Creates a stand-in for an interface. Methods are answered by name from a {@link Map}: an {@link Answer} is
+     * called with the arguments, any other value is returned as is, and methods that are not in the {@link Map} return
+     * <tt>null</tt>, <tt>false</tt> or 0.
+     *
+     * @param type   The interface to implement.
+     * @param values The values of the methods by name. The {@link Map} may be filled in after the stand-in is created.
+     * @param <T>    The interface to implement.
+     * @return the stand-in.
+     */
+    private static <T> T proxy(Class<T> type, Map<String, Object> values) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + "(" + values.get("getId") + ")";
+            }
+
+            Object value = values.get(method.getName());
+            if (value instanceof Answer) {
+                return ((Answer) value).answer(args);
+            } else if (value != null) {
+                return value;
+            }
+
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == long.class) {
+                return 0L;
+            } else if (returnType == int.class) {
+                return 0;
+            } else if (returnType.isPrimitive() && returnType != void.class) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Computes the return value of a stand-in method from its arguments.
+     */
+    private interface Answer {
+
+        /**
+         * @param args The arguments of the call.
+         * @return the return value.
+         */
+        Object answer(Object[] args);
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.discordbot.replay;
+
+import net.dv8tion.jda.core.entities.ChannelType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One recorded message in a trace. A trace is a text file with one message per line, as tab separated fields:
+ * <pre>
+ * channel type    guild id    channel id    author id    content
+ * </pre>
+ * The channel type is a {@link ChannelType} name, the guild id is <tt>-</tt> for private channels, and
+ * <tt>\n</tt>, <tt>\t</tt> and <tt>\\</tt> in the content are unescaped. Blank lines and lines starting with
+ * <tt>#</tt> are skipped.
+ */
+public class TraceEvent {
+
+    private final ChannelType channelType;
+    private final String guildId;
+    private final String channelId;
+    private final String authorId;
+    private final String content;
+
+    /**
+     * @param channelType The {@link ChannelType} the message was sent in.
+     * @param guildId     The id of the guild the message was sent in, or <tt>null</tt> for private channels.
+     * @param channelId   The id of the channel the message was sent in.
+     * @param authorId    The id of the author of the message.
+     * @param content     The content of the message.
+     */
+    public TraceEvent(ChannelType channelType, String guildId, String channelId, String authorId, String content) {
+        this.channelType = channelType;
+        this.guildId = guildId;
+        this.channelId = channelId;
+        this.authorId = authorId;
+        this.content = content;
+    }
+
+    /**
+     * Reads a trace.
+     *
+     * @param path The {@link Path} of the trace.
+     * @return the {@link List} of TraceEvents in the order they were recorded.
+     * @throws IOException if the trace could not be read or a line is malformed.
+     */
+    public static List<TraceEvent> read(Path path) throws IOException {
+        List<TraceEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split("\t", 5);
+                if (fields.length < 5) {
+                    throw new IOException(path + ":" + number + ": expected 5 tab separated fields");
+                }
+                try {
+                    events.add(new TraceEvent(ChannelType.valueOf(fields[0]),
+                            fields[1].equals("-") ? null : fields[1], fields[2], fields[3], unescape(fields[4])));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + ":" + number + ": unknown channel type " + fields[0]);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Unescapes the content of a message.
+     *
+     * @param content The escaped content.
+     * @return the content.
+     */
+    private static String unescape(String content) {
+        if (content.indexOf('\\') < 0) {
+            return content;
+        }
+        StringBuilder builder = new StringBuilder(content.length());
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\\' && i + 1 < content.length()) {
+                char next = content.charAt(++i);
+                builder.append(next == 'n' ? '\n' : next == 't' ? '\t' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Accessor for the {@link ChannelType} the message was sent in.
+     *
+     * @return the {@link ChannelType}.
+     */
+    public ChannelType getChannelType() {
+        return channelType;
+    }
+
+    /**
+     * Accessor for the id of the guild the message was sent in.
+     *
+     * @return the id of the guild, or <tt>null</tt> for private channels.
+     */
+    public String getGuildId() {
+        return guildId;
+    }
+
+    /**
+     * Accessor for the id of the channel the message was sent in.
+     *
+     * @return the id of the channel.
+     */
+    public String getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * Accessor for the id of the author of the message.
+     *
+     * @return the id of the author.
+     */
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    /**
+     * Accessor for the content of the message.
+     *
+     * @return the content of the message.
+     */
+    public String getContent() {
+        return content;
+    }
+
+}